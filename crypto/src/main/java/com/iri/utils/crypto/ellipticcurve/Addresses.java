@@ -0,0 +1,140 @@
+package com.iri.utils.crypto.ellipticcurve;
+import com.iri.utils.crypto.ellipticcurve.utils.Base58Check;
+import com.iri.utils.crypto.ellipticcurve.utils.BigEndian;
+import com.iri.utils.crypto.ellipticcurve.utils.Hashes;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+
+/**
+ * Bitcoin (version 0, P2PKH) addresses of secp256k1 public keys.
+ * <p>
+ * The SEC1 encoding of the key, its Hash160, the version byte, the checksum and the Base58 digits are all
+ * written into one pooled workspace, so deriving an address allocates nothing but the returned String.
+ * The batch methods keep a single workspace for the whole array.
+ */
+public final class Addresses {
+
+    static final byte VERSION = 0;
+
+    private static final int COORDINATE_LEN = 32;
+    private static final int COMPRESSED_LEN = 1 + COORDINATE_LEN;
+    private static final int UNCOMPRESSED_LEN = 1 + 2 * COORDINATE_LEN;
+    private static final int ADDRESS_LEN = 1 + Hashes.HASH160_LEN + Base58Check.CHECKSUM_LEN;
+
+    private static final ConcurrentLinkedQueue<Workspace> WORKSPACES = new ConcurrentLinkedQueue<>();
+
+    private Addresses() {
+        throw new UnsupportedOperationException("Addresses is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * @param key Public key on secp256k1
+     * @param compressed Whether the address is for the 33-byte rather than the 65-byte encoding of the key
+     * @return The Base58Check address
+     */
+    public static String fromPublicKey(PublicKey key, boolean compressed) {
+        Workspace workspace = borrow();
+        try {
+            int len = encodeSec1(key.point, compressed, workspace.sec1, 0);
+            return workspace.address(workspace.sec1, 0, len);
+        } finally {
+            WORKSPACES.offer(workspace);
+        }
+    }
+
+    /**
+     * @param keys Public keys on secp256k1
+     * @param compressed Whether the addresses are for the compressed encodings of the keys
+     * @return The addresses, in the same order as the keys
+     */
+    public static String[] fromPublicKeys(PublicKey[] keys, boolean compressed) {
+        String[] addresses = new String[keys.length];
+        Workspace workspace = borrow();
+        try {
+            for (int i = 0; i < keys.length; i++) {
+                int len = encodeSec1(keys[i].point, compressed, workspace.sec1, 0);
+                addresses[i] = workspace.address(workspace.sec1, 0, len);
+            }
+        } finally {
+            WORKSPACES.offer(workspace);
+        }
+        return addresses;
+    }
+
+    /**
+     * @param key SEC1 encoded public key in key[off..off + len): 33 bytes starting with 2 or 3, or 65 bytes
+     *            starting with 4
+     * @return The Base58Check address
+     */
+    public static String fromSec1(byte[] key, int off, int len) {
+        checkSec1(key, off, len);
+        Workspace workspace = borrow();
+        try {
+            return workspace.address(key, off, len);
+        } finally {
+            WORKSPACES.offer(workspace);
+        }
+    }
+
+    /**
+     * @param keys SEC1 encoded public keys, compressed or not
+     * @return The addresses, in the same order as the keys
+     */
+    public static String[] fromSec1(byte[][] keys) {
+        String[] addresses = new String[keys.length];
+        Workspace workspace = borrow();
+        try {
+            for (int i = 0; i < keys.length; i++) {
+                checkSec1(keys[i], 0, keys[i].length);
+                addresses[i] = workspace.address(keys[i], 0, keys[i].length);
+            }
+        } finally {
+            WORKSPACES.offer(workspace);
+        }
+        return addresses;
+    }
+
+    /**
+     * Write the SEC1 encoding of an affine point to out starting at off
+     *
+     * @return Number of bytes written, 33 or 65
+     */
+    static int encodeSec1(Point point, boolean compressed, byte[] out, int off) {
+        if (compressed) {
+            out[off] = (byte) (point.y.testBit(0) ? 3 : 2);
+            BigEndian.write(point.x, out, off + 1, COORDINATE_LEN);
+            return COMPRESSED_LEN;
+        }
+        out[off] = 4;
+        BigEndian.write(point.x, out, off + 1, COORDINATE_LEN);
+        BigEndian.write(point.y, out, off + 1 + COORDINATE_LEN, COORDINATE_LEN);
+        return UNCOMPRESSED_LEN;
+    }
+
+    private static void checkSec1(byte[] key, int off, int len) {
+        boolean valid = len == COMPRESSED_LEN ? key[off] == 2 || key[off] == 3 : len == UNCOMPRESSED_LEN && key[off] == 4;
+        if (!valid) {
+            throw new IllegalArgumentException(String.format("not a SEC1 encoded public key: %d bytes starting with %d", len, len > 0 ? key[off] : -1));
+        }
+    }
+
+    private static Workspace borrow() {
+        Workspace workspace = WORKSPACES.poll();
+        return workspace != null ? workspace : new Workspace();
+    }
+
+    private static final class Workspace {
+
+        final byte[] sec1 = new byte[UNCOMPRESSED_LEN];
+        // version byte, Hash160, then room for the whole double SHA-256 of which the first four bytes are kept
+        final byte[] payload = new byte[1 + Hashes.HASH160_LEN + Hashes.SHA256_LEN];
+        final char[] chars = new char[Base58Check.maxEncodedLength(ADDRESS_LEN)];
+
+        String address(byte[] key, int off, int len) {
+            payload[0] = VERSION;
+            Hashes.hash160(key, off, len, payload, 1);
+            Hashes.doubleSha256(payload, 0, 1 + Hashes.HASH160_LEN, payload, 1 + Hashes.HASH160_LEN);
+            return new String(chars, 0, Base58Check.encode(payload, 0, ADDRESS_LEN, chars, 0));
+        }
+    }
+}
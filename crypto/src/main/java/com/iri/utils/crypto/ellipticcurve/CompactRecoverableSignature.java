@@ -0,0 +1,129 @@
+package com.iri.utils.crypto.ellipticcurve;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+
+/**
+ * Fixed-width 65-byte recoverable signature header || r || s, the layout of Bitcoin signed messages.
+ * <p>
+ * The header byte is 27 + recovery id, plus 4 when the address is derived from the compressed public key.
+ * Like {@link CompactSignature} an instance is a view of bytes at a fixed offset of a byte[] or ByteBuffer.
+ */
+public final class CompactRecoverableSignature {
+
+    public static final int LENGTH = 1 + CompactSignature.LENGTH;
+
+    private static final int HEADER_BASE = 27;
+    private static final int COMPRESSED_FLAG = 4;
+
+    private final ByteBuffer buffer;
+    private final int offset;
+
+    private CompactRecoverableSignature(ByteBuffer buffer, int offset) {
+        if (offset < 0 || offset > buffer.limit() - LENGTH) {
+            throw new IndexOutOfBoundsException(String.format("no room for %d bytes at %d in a buffer of %d", LENGTH, offset, buffer.limit()));
+        }
+        this.buffer = buffer;
+        this.offset = offset;
+    }
+
+    /**
+     * View of array[offset..offset + 65)
+     */
+    public static CompactRecoverableSignature wrap(byte[] array, int offset) {
+        return new CompactRecoverableSignature(ByteBuffer.wrap(array), offset);
+    }
+
+    /**
+     * View of the 65 bytes at the absolute index of the buffer, which must all lie below its limit; the
+     * buffer's position is neither used nor changed
+     */
+    public static CompactRecoverableSignature wrap(ByteBuffer buffer, int index) {
+        return new CompactRecoverableSignature(buffer, index);
+    }
+
+    /**
+     * @param compressed Whether the signer's address comes from the compressed public key
+     * @return A compact copy of the signature in a new 65-byte array
+     */
+    public static CompactRecoverableSignature of(RecoverableSignature signature, boolean compressed) {
+        CompactRecoverableSignature compact = wrap(new byte[LENGTH], 0);
+        compact.set(signature, compressed);
+        return compact;
+    }
+
+    /**
+     * Overwrite the viewed bytes with the signature
+     */
+    public void set(RecoverableSignature signature, boolean compressed) {
+        buffer.put(offset, (byte) (HEADER_BASE + signature.recoveryId + (compressed ? COMPRESSED_FLAG : 0)));
+        body().set(signature);
+    }
+
+    /**
+     * @return The header byte, unsigned
+     */
+    public int header() {
+        return buffer.get(offset) & 0xFF;
+    }
+
+    /**
+     * @return Whether the header is one of the eight valid values 27 to 34
+     */
+    public boolean hasValidHeader() {
+        int header = header();
+        return header >= HEADER_BASE && header < HEADER_BASE + 2 * COMPRESSED_FLAG;
+    }
+
+    public int recoveryId() {
+        return (header() - HEADER_BASE) & 3;
+    }
+
+    public boolean isCompressed() {
+        return header() >= HEADER_BASE + COMPRESSED_FLAG;
+    }
+
+    public BigInteger r() {
+        return CompactSignature.readScalar(buffer, offset + 1);
+    }
+
+    public BigInteger s() {
+        return CompactSignature.readScalar(buffer, offset + 1 + CompactSignature.SCALAR_LENGTH);
+    }
+
+    /**
+     * @return View of r || s
+     */
+    public CompactSignature body() {
+        return CompactSignature.wrap(buffer, offset + 1);
+    }
+
+    public RecoverableSignature toSignature() {
+        if (!hasValidHeader()) {
+            throw new IllegalStateException(String.format("invalid recoverable signature header %d", header()));
+        }
+        return new RecoverableSignature(r(), s(), recoveryId());
+    }
+
+    /**
+     * Copy the 65 bytes to out starting at off
+     */
+    public void writeTo(byte[] out, int off) {
+        out[off] = buffer.get(offset);
+        body().writeTo(out, off + 1);
+    }
+
+    /**
+     * Copy the 65 bytes to the buffer's position, advancing it
+     */
+    public void writeTo(ByteBuffer out) {
+        out.put(buffer.get(offset));
+        body().writeTo(out);
+    }
+
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[LENGTH];
+        writeTo(bytes, 0);
+        return bytes;
+    }
+}
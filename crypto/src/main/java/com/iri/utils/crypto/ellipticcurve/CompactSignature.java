@@ -0,0 +1,105 @@
+package com.iri.utils.crypto.ellipticcurve;
+import com.iri.utils.crypto.ellipticcurve.utils.BigEndian;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+
+/**
+ * Fixed-width 64-byte signature r || s, both big-endian and 32 bytes long, as used for secp256k1.
+ * <p>
+ * An instance is a view of 64 bytes at a fixed offset of a byte[] or ByteBuffer, so signatures can be kept
+ * back to back in a large array or a memory-mapped file and read or written in place. Nothing is copied
+ * and no BigInteger is created until {@link #r()}, {@link #s()} or {@link #toSignature()} is called.
+ */
+public final class CompactSignature {
+
+    public static final int SCALAR_LENGTH = 32;
+    public static final int LENGTH = 2 * SCALAR_LENGTH;
+
+    private final ByteBuffer buffer;
+    private final int offset;
+
+    private CompactSignature(ByteBuffer buffer, int offset) {
+        if (offset < 0 || offset > buffer.limit() - LENGTH) {
+            throw new IndexOutOfBoundsException(String.format("no room for %d bytes at %d in a buffer of %d", LENGTH, offset, buffer.limit()));
+        }
+        this.buffer = buffer;
+        this.offset = offset;
+    }
+
+    /**
+     * View of array[offset..offset + 64)
+     */
+    public static CompactSignature wrap(byte[] array, int offset) {
+        return new CompactSignature(ByteBuffer.wrap(array), offset);
+    }
+
+    /**
+     * View of the 64 bytes at the absolute index of the buffer, which must all lie below its limit; the
+     * buffer's position is neither used nor changed
+     */
+    public static CompactSignature wrap(ByteBuffer buffer, int index) {
+        return new CompactSignature(buffer, index);
+    }
+
+    /**
+     * @return A compact copy of the signature in a new 64-byte array
+     */
+    public static CompactSignature of(Signature signature) {
+        CompactSignature compact = wrap(new byte[LENGTH], 0);
+        compact.set(signature);
+        return compact;
+    }
+
+    /**
+     * Overwrite the viewed bytes with r and s of the signature
+     */
+    public void set(Signature signature) {
+        writeScalar(signature.r, buffer, offset);
+        writeScalar(signature.s, buffer, offset + SCALAR_LENGTH);
+    }
+
+    public BigInteger r() {
+        return readScalar(buffer, offset);
+    }
+
+    public BigInteger s() {
+        return readScalar(buffer, offset + SCALAR_LENGTH);
+    }
+
+    public Signature toSignature() {
+        return new Signature(r(), s());
+    }
+
+    /**
+     * Copy the 64 bytes to out starting at off
+     */
+    public void writeTo(byte[] out, int off) {
+        for (int i = 0; i < LENGTH; i++) {
+            out[off + i] = buffer.get(offset + i);
+        }
+    }
+
+    /**
+     * Copy the 64 bytes to the buffer's position, advancing it
+     */
+    public void writeTo(ByteBuffer out) {
+        for (int i = 0; i < LENGTH; i++) {
+            out.put(buffer.get(offset + i));
+        }
+    }
+
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[LENGTH];
+        writeTo(bytes, 0);
+        return bytes;
+    }
+
+    static BigInteger readScalar(ByteBuffer buffer, int index) {
+        return BigEndian.toBigInteger(buffer, index, SCALAR_LENGTH);
+    }
+
+    static void writeScalar(BigInteger value, ByteBuffer buffer, int index) {
+        BigEndian.write(value, buffer, index, SCALAR_LENGTH);
+    }
+}
@@ -18,6 +18,8 @@ public class Curve {
     public String name;
     public long[] oid;
 
+    private volatile GeneratorTable generatorTable;
+
     public Curve(BigInteger A, BigInteger B, BigInteger P, BigInteger N, BigInteger Gx, BigInteger Gy, String name, long[] oid) {
         this.A = A;
         this.B = B;
@@ -42,6 +44,25 @@ public class Curve {
         return (1 + N.toString(16).length()) / 2;
     }
 
+    /**
+     * Precomputed multiples of G, built on first use and shared by all threads afterwards.
+     *
+     * @return the fixed-base table of this curve
+     */
+    GeneratorTable generatorTable() {
+        GeneratorTable table = generatorTable;
+        if (table == null) {
+            synchronized (this) {
+                table = generatorTable;
+                if (table == null) {
+                    table = new GeneratorTable(this);
+                    generatorTable = table;
+                }
+            }
+        }
+        return table;
+    }
+
     public static final Curve secp256k1 = new Curve(
         BigInteger.ZERO,
         BigInteger.valueOf(7),
@@ -1,52 +1,191 @@
 package com.iri.utils.crypto.ellipticcurve;
 
-import com.iri.utils.crypto.ellipticcurve.utils.BinaryAscii;
-import com.iri.utils.crypto.ellipticcurve.utils.RandomInteger;
+import com.iri.utils.crypto.ellipticcurve.utils.BigEndian;
+import com.iri.utils.crypto.ellipticcurve.utils.Hashes;
 
 import java.math.BigInteger;
 import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 
 public final class Ecdsa {
 
-    public static Signature sign(String message, PrivateKey privateKey, MessageDigest hashfunc) {
-        byte[] hashMessage = hashfunc.digest(hashfunc.digest(message.getBytes()));
-        BigInteger numberMessage = BinaryAscii.numberFromString(hashMessage);
+    /**
+     * Source of the nonce k of a signature
+     */
+    public enum Nonce {
+        /**
+         * k drawn from the system's secure random generator
+         */
+        RANDOM,
+        /**
+         * k derived from the private key and the message hash (RFC 6979), so signatures are reproducible
+         */
+        RFC6979
+    }
+
+    /**
+     * @return The signature together with the recovery id of its nonce point
+     */
+    public static RecoverableSignature sign(String message, PrivateKey privateKey, MessageDigest hashfunc) {
+        return sign(hashMessage(message, hashfunc), privateKey);
+    }
+
+    public static RecoverableSignature sign(String message, PrivateKey privateKey) {
+        return sign(hashMessage(message), privateKey);
+    }
+
+    /**
+     * @param nonce Whether k is random or derived deterministically from the key and the message
+     */
+    public static RecoverableSignature sign(String message, PrivateKey privateKey, Nonce nonce) {
+        if (nonce == Nonce.RANDOM) {
+            return sign(message, privateKey);
+        }
         Curve curve = privateKey.curve;
-        BigInteger randNum = RandomInteger.between(BigInteger.ONE, curve.N);
-        Point randomSignPoint = Math.multiply(curve.G, randNum, curve.N, curve.A, curve.P);
-        BigInteger r = randomSignPoint.x.mod(curve.N);
-        BigInteger s = ((numberMessage.add(r.multiply(privateKey.secret))).multiply(Math.inv(randNum, curve.N))).mod(curve.N);
-        return new Signature(r, s);
+        byte[] hashMessage = Hashes.doubleSha256(message.getBytes());
+        BigInteger k = Rfc6979.nonce(privateKey.secret, hashMessage, curve.N);
+        return sign(BigEndian.toBigInteger(hashMessage), privateKey, PresignPool.presign(curve, k));
+    }
+
+    /**
+     * Sign with a nonce prepared by the pool, which leaves only arithmetic modulo N on the calling thread
+     *
+     * @param pool Pool of nonces for the curve of the private key
+     */
+    public static RecoverableSignature sign(String message, PrivateKey privateKey, PresignPool pool) {
+        if (pool.getCurve() != privateKey.curve) {
+            throw new IllegalArgumentException(String.format("presign pool is for curve %s, not %s", pool.getCurve().name, privateKey.curve.name));
+        }
+        return sign(hashMessage(message), privateKey, pool.take());
     }
 
-    public static Signature sign(String message, PrivateKey privateKey) {
-        try {
-            return sign(message, privateKey, MessageDigest.getInstance("SHA-256"));
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException("Could not find SHA-256 message digest in provided java environment");
+    /**
+     * @param hash Message digest computed by the caller, e.g. from a cached midstate
+     */
+    static RecoverableSignature signHash(byte[] hash, PrivateKey privateKey) {
+        return sign(BigEndian.toBigInteger(hash), privateKey);
+    }
+
+    private static RecoverableSignature sign(BigInteger numberMessage, PrivateKey privateKey) {
+        return sign(numberMessage, privateKey, PresignPool.presign(privateKey.curve, 1)[0]);
+    }
+
+    private static RecoverableSignature sign(BigInteger numberMessage, PrivateKey privateKey, PresignPool.Presignature nonce) {
+        BigInteger s;
+        if (Scalar.N.equals(privateKey.curve.N)) {
+            // s = k^-1 * (z + r * d) on fixed limbs, as d and k^-1 are secret
+            Scalar sum = Scalar.fromBigInteger(nonce.r);
+            sum.mul(sum, Scalar.fromBigInteger(privateKey.secret));
+            sum.add(sum, Scalar.fromBigInteger(numberMessage));
+            s = sum.mul(sum, Scalar.fromBigInteger(nonce.kInverse)).toBigInteger();
+        } else {
+            s = numberMessage.add(nonce.r.multiply(privateKey.secret)).multiply(nonce.kInverse).mod(privateKey.curve.N);
         }
+        return new RecoverableSignature(nonce.r, s, nonce.recoveryId);
     }
 
     public static boolean verify(String message, Signature signature, PublicKey publicKey, MessageDigest hashfunc) {
-        byte[] hashMessage = hashfunc.digest(hashfunc.digest(message.getBytes()));
-        BigInteger numberMessage = BinaryAscii.numberFromString(hashMessage);
-        Curve curve = publicKey.curve;
-        BigInteger r = signature.r;
-        BigInteger s = signature.s;
-        BigInteger w = Math.inv(s, curve.N);
-        Point u1 = Math.multiply(curve.G, numberMessage.multiply(w).mod(curve.N), curve.N, curve.A, curve.P);
-        Point u2 = Math.multiply(publicKey.point, r.multiply(w).mod(curve.N), curve.N, curve.A, curve.P);
-        Point point = Math.add(u1, u2, curve.A, curve.P);
-        return r.compareTo(point.x) == 0;
+        if (!inRange(signature, publicKey.curve)) {
+            return false;
+        }
+        BigInteger w = Math.inv(signature.s, publicKey.curve.N);
+        return verify(hashMessage(message, hashfunc), signature, w, publicKey);
     }
 
     public static boolean verify(String message, Signature signature, PublicKey publicKey) {
-        try {
-            return verify(message, signature, publicKey, MessageDigest.getInstance("SHA-256"));
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException("Could not find SHA-256 message digest in provided java environment");
+        if (!inRange(signature, publicKey.curve)) {
+            return false;
+        }
+        BigInteger w = Math.inv(signature.s, publicKey.curve.N);
+        return verify(hashMessage(message), signature, w, publicKey);
+    }
+
+    /**
+     * @param hash Message digest computed by the caller, e.g. from a cached midstate
+     */
+    static boolean verifyHash(byte[] hash, Signature signature, PublicKey publicKey) {
+        if (!inRange(signature, publicKey.curve)) {
+            return false;
+        }
+        BigInteger w = Math.inv(signature.s, publicKey.curve.N);
+        return verify(BigEndian.toBigInteger(hash), signature, w, publicKey);
+    }
+
+    /**
+     * Verify many signatures at once. The messages are hashed with the same digest and the inverses of all
+     * s values come from a single modular inversion; each signature is then checked on its own, since ECDSA
+     * signatures without the y coordinate of R admit no sound combined check.
+     *
+     * @param items Messages with their signatures and public keys
+     * @param hashfunc Digest applied twice to every message, or null for the pooled SHA-256 of {@link Hashes}
+     * @return For each item, whether its signature is valid, in input order
+     */
+    public static boolean[] verifyBatch(List<SignedMessage> items, MessageDigest hashfunc) {
+        boolean[] results = new boolean[items.size()];
+        // Montgomery's trick needs a common modulus, so the inverses are shared per curve
+        Map<Curve, List<Integer>> byCurve = new LinkedHashMap<>();
+        for (int i = 0; i < results.length; i++) {
+            SignedMessage item = items.get(i);
+            if (inRange(item.signature, item.publicKey.curve)) {
+                List<Integer> indexes = byCurve.get(item.publicKey.curve);
+                if (indexes == null) {
+                    indexes = new ArrayList<>();
+                    byCurve.put(item.publicKey.curve, indexes);
+                }
+                indexes.add(i);
+            }
+        }
+        for (Map.Entry<Curve, List<Integer>> entry : byCurve.entrySet()) {
+            List<Integer> indexes = entry.getValue();
+            BigInteger[] s = new BigInteger[indexes.size()];
+            for (int k = 0; k < s.length; k++) {
+                s[k] = items.get(indexes.get(k)).signature.s;
+            }
+            BigInteger[] w = Math.batchInverse(s, entry.getKey().N);
+            for (int k = 0; k < s.length; k++) {
+                int i = indexes.get(k);
+                SignedMessage item = items.get(i);
+                BigInteger numberMessage = hashfunc == null ? hashMessage(item.message) : hashMessage(item.message, hashfunc);
+                results[i] = verify(numberMessage, item.signature, w[k], item.publicKey);
+            }
         }
+        return results;
+    }
+
+    public static boolean[] verifyBatch(List<SignedMessage> items) {
+        return verifyBatch(items, null);
+    }
+
+    public static boolean[] verifyBatch(SignedMessage... items) {
+        return verifyBatch(Arrays.asList(items));
+    }
+
+    private static BigInteger hashMessage(String message) {
+        return BigEndian.toBigInteger(Hashes.doubleSha256(message.getBytes()));
+    }
+
+    private static BigInteger hashMessage(String message, MessageDigest hashfunc) {
+        return BigEndian.toBigInteger(hashfunc.digest(hashfunc.digest(message.getBytes())));
+    }
+
+    private static boolean inRange(Signature signature, Curve curve) {
+        BigInteger r = signature.r;
+        BigInteger s = signature.s;
+        return r.signum() > 0 && r.compareTo(curve.N) < 0 && s.signum() > 0 && s.compareTo(curve.N) < 0;
+    }
+
+    /**
+     * @param w Inverse of s modulo N
+     */
+    private static boolean verify(BigInteger numberMessage, Signature signature, BigInteger w, PublicKey publicKey) {
+        Curve curve = publicKey.curve;
+        BigInteger u1 = numberMessage.multiply(w).mod(curve.N);
+        BigInteger u2 = signature.r.multiply(w).mod(curve.N);
+        return Math.multiplyAndAddHasX(curve.G, u1, publicKey.point, u2, signature.r, curve.N, curve.A, curve.P);
     }
 }
@@ -1,9 +1,10 @@
 package com.iri.utils.crypto.ellipticcurve;
 
 import com.iri.utils.crypto.ellipticcurve.utils.Base64;
-import com.iri.utils.crypto.ellipticcurve.utils.BinaryAscii;
+import com.iri.utils.crypto.ellipticcurve.utils.BigEndian;
 import com.iri.utils.crypto.ellipticcurve.utils.ByteString;
-import com.iri.utils.crypto.ellipticcurve.utils.Ripemd160;
+import com.iri.utils.crypto.ellipticcurve.utils.Hashes;
+import com.iri.utils.crypto.ellipticcurve.utils.Sha256;
 import io.ipfs.multibase.Base58;
 import org.apache.log4j.Logger;
 import org.json.JSONException;
@@ -13,7 +14,7 @@ import java.io.IOException;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.math.BigInteger;
-import java.security.MessageDigest;
+import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -30,6 +31,12 @@ import java.util.Map;
  */
 public class EcdsaUtils {
     private static final Logger logger = Logger.getLogger(EcdsaUtils.class);
+    private static final Sha256 SIGNED_MESSAGE_PREFIX = new Sha256();
+
+    static {
+        byte[] prefix = ((char) 0x18 + "Bitcoin Signed Message:\n").getBytes(StandardCharsets.US_ASCII);
+        SIGNED_MESSAGE_PREFIX.update(prefix, 0, prefix.length);
+    }
 
     /**
      * generate private key and address.
@@ -37,35 +44,24 @@ public class EcdsaUtils {
      */
     public static SecureInfo generateSecureInfo(){
         PrivateKey privateKey = new PrivateKey();
-        try {
-            String base58 = convert2Base58(privateKey, MessageDigest.getInstance("SHA-256"));
-            String address = generateAddress(PrivateKey.fromBase58(base58));
-            return new SecureInfo(base58, address);
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("generate private key and address error. ", e);
-        }
+        String base58 = convert2Base58(privateKey);
+        String address = generateAddress(privateKey.publicKey(), true);
+        return new SecureInfo(base58, address);
     }
 
-    private static String convert2Base58(PrivateKey privateKey, MessageDigest func) {
-        String hex = BinaryAscii.hexFromBinary(privateKey.toByteString());
-
-        String with80 = "80" + hex;
-
-        byte[] bs2 = BinaryAscii.binaryFromHex(with80);
+    /* WIF of the private key, shared with KeyProvisioner */
+    static String convert2Base58(PrivateKey privateKey) {
+        // the secret always takes 32 bytes, also when its leading bytes are zero
+        int len = privateKey.curve.length();
+        byte[] bs2 = new byte[1 + len];
+        bs2[0] = (byte) 0x80;
+        BigEndian.write(privateKey.secret, bs2, 1, len);
 
-        byte[] hash256 = func.digest(bs2);
+        byte[] hash256twice = Hashes.doubleSha256(bs2);
 
-        byte[] hash256twice = func.digest(hash256);
-
-        byte[] first4byte = new byte[4];
-
-        System.arraycopy(hash256twice, 0, first4byte, 0, 4);
-
-        String hexFirst4Byte = BinaryAscii.hexFromBinary(first4byte);
-
-        with80 = with80 + hexFirst4Byte;
-
-        byte[] bs3 = BinaryAscii.binaryFromHex(with80);
+        byte[] bs3 = new byte[bs2.length + 4];
+        System.arraycopy(bs2, 0, bs3, 0, bs2.length);
+        System.arraycopy(hash256twice, 0, bs3, bs2.length, 4);
 
         return Base58.encode(bs3);
     }
@@ -83,37 +79,12 @@ public class EcdsaUtils {
      */
     public static String sign(String message, String base58PrivateKey, String address){
         PrivateKey privateKey = PrivateKey.fromBase58(base58PrivateKey);
-        Signature signature = Ecdsa.sign(EcdsaUtils.wrap(message), privateKey);
-        int nv;
-        for(int i=0; i<4; i++){
-            nv = 27 + i + 4;
-            String sig = org.apache.xerces.impl.dv.util.Base64.encode(concatByteArray(BigInteger.valueOf(nv).toByteArray(), BinaryAscii.stringFromNumber(signature.r, signature.r.bitLength()).getBytes(), BinaryAscii.stringFromNumber(signature.s, signature.s.bitLength()).getBytes()));
-            try {
-                if (EcdsaUtils.verifyMessage(sig,message, address).verifyResult()){
-                    return sig;
-                }
-            } catch (NoSuchAlgorithmException e) {
-                e.printStackTrace();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        }
-        throw new RuntimeException("error: can not sig message.");
-    }
-
-    private static byte[] concatByteArray(byte[] array1, byte[] ... array2){
-        int size = 0;
-        for (byte[] a : array2){
-            size += a.length;
-        }
-        byte[] dest = new byte[array1.length + size];
-        System.arraycopy(array1, 0, dest, 0, array1.length);
-        int index = array1.length;
-        for(byte[] array22 : array2) {
-            System.arraycopy(array22, 0, dest, index, array22.length);
-            index += array22.length;
+        if (!generateAddress(privateKey.publicKey(), true).equals(address)) {
+            throw new RuntimeException("error: can not sig message.");
         }
-        return dest;
+        RecoverableSignature signature = Ecdsa.signHash(hashSignedMessage(message), privateKey);
+        // compressed, as generateAddress(PrivateKey) derives the address from the compressed public key
+        return org.apache.xerces.impl.dv.util.Base64.encode(CompactRecoverableSignature.of(signature, true).toByteArray());
     }
 
     /**
@@ -132,34 +103,21 @@ public class EcdsaUtils {
             throw new RuntimeException("Wrong encoding");
         }
 
-        int nV = sig[0];
-        boolean isCompressed;
-        if (nV < 27 || nV >= 35){
+        CompactRecoverableSignature compact = CompactRecoverableSignature.wrap(sig, 0);
+        if (!compact.hasValidHeader()){
             throw new RuntimeException("sig failed");
         }
-        if (nV >= 31){
-            isCompressed = true;
-            nV -= 4;
-        }else{
-            isCompressed = false;
-        }
+        Signature signature1 = compact.toSignature();
 
-        Curve curve = Curve.secp256k1;
-        int len = curve.length();
-        byte[] r = new byte[len];
-        System.arraycopy(sig, 1, r, 0, len);
-        byte[] s = new byte[sig.length - 1 - len];
-        System.arraycopy(sig, sig.length - len, s, 0, sig.length - 1 - len);
-
-        PublicKey publicKey = recoverFrom(wrap(message), r, s, nV, curve);
-        Signature signature1 = new Signature(BinaryAscii.numberFromString(r), BinaryAscii.numberFromString(s));
+        byte[] hash = hashSignedMessage(message);
+        PublicKey publicKey = recoverFrom(hash, signature1.r, signature1.s, compact.recoveryId(), Curve.secp256k1);
 
-        if (!Ecdsa.verify(wrap(message), signature1, publicKey, MessageDigest.getInstance("SHA-256"))){
+        if (!Ecdsa.verifyHash(hash, signature1, publicKey)){
             String error = String.format("verify signature failed, expect:%s, actural :%s", signature, signature1.toBase64());
             return new ValidRes(false, error);
         }
 
-        String generateAddress = generateAddress(publicKey, isCompressed);
+        String generateAddress = generateAddress(publicKey, compact.isCompressed());
         if (!generateAddress.equals(address)){
             String error = String.format("valid address failed, expect:%s, actural :%s", address, generateAddress);
             return new ValidRes(false, error);
@@ -167,62 +125,45 @@ public class EcdsaUtils {
         return new ValidRes(true, "success");
     }
 
-    /* internal method  */
-    private static String wrap(String message){
-        String msg = (char)0x18 + "Bitcoin Signed Message:" + (char)'\n' + (char)message.length() + message;
-        return msg;
+    /*
+     * double SHA-256 of (char)0x18 + "Bitcoin Signed Message:\n" + (char)message.length() + message, encoded
+     * with the default charset; the constant prefix is hashed once into a midstate
+     */
+    static byte[] hashSignedMessage(String message) {
+        byte[] bytes = ((char) message.length() + message).getBytes();
+        Sha256 sha256 = new Sha256(SIGNED_MESSAGE_PREFIX);
+        sha256.update(bytes, 0, bytes.length);
+        byte[] hash = new byte[Sha256.HASH_LEN];
+        sha256.doubleDigest(hash, 0);
+        return hash;
     }
 
-    private static PublicKey recoverFrom(String message, byte[] rByte, byte[] sByte, int nV, Curve curve) throws NoSuchAlgorithmException {
-        int recId = nV - 27;
-        BigInteger x = BinaryAscii.numberFromString(rByte).add(BigInteger.valueOf(recId).divide(BigInteger.valueOf(2)).multiply(curve.N));
+    private static PublicKey recoverFrom(byte[] h, BigInteger r, BigInteger s, int recId, Curve curve) {
+        BigInteger x = r.add(BigInteger.valueOf(recId).divide(BigInteger.valueOf(2)).multiply(curve.N));
         BigInteger alpha = (x.multiply(x).multiply(x).add(curve.A.multiply(x)).add(curve.B)).mod(curve.P);
         BigInteger beta = modularSqrt(alpha, curve.P);
         BigInteger y = beta.subtract(BigInteger.valueOf(recId)).mod(BigInteger.valueOf(2)).intValue() == 0 ? beta : curve.P.subtract(beta);
-        BigInteger s = new BigInteger(BinaryAscii.hexFromBinary(sByte), 16);
         Point rR = new Point(x, y, curve.B);
-        MessageDigest hashFunc = MessageDigest.getInstance("SHA-256");
-        byte[] h = hashFunc.digest(hashFunc.digest(message.getBytes()));
-        BigInteger e = new BigInteger(BinaryAscii.hexFromBinary(h), 16);
+        BigInteger e = BigEndian.toBigInteger(h);
         BigInteger minuxE = e.multiply(BigInteger.valueOf(-1)).mod(curve.N);
-        BigInteger invR = Math.inv(new BigInteger(BinaryAscii.hexFromBinary(rByte), 16), curve.N);
+        BigInteger invR = Math.inv(r, curve.N);
 
-        Point qQ1 = Math.multiply(rR, s, curve.N, curve.A, curve.P);
-        Point qQ2 = Math.multiply(curve.G, minuxE, curve.N, curve.A, curve.P);
-        Point qQ = Math.multiply(Math.add(qQ1, qQ2, curve.A, curve.P),invR, curve.N, curve.A, curve.P);
-        ByteString xStr = BinaryAscii.stringFromNumber(qQ.x, qQ.x.bitLength());
-        ByteString yStr = BinaryAscii.stringFromNumber(qQ.y, qQ.y.bitLength());
-        byte[] point = new byte[xStr.length() + yStr.length()];
-        System.arraycopy(xStr.getBytes(), 0, point, 0, xStr.length());
-        System.arraycopy(yStr.getBytes(), 0, point, xStr.length(), yStr.length());
+        // Q = invR * (s * R - e * G), evaluated as one double multiplication
+        BigInteger u1 = minuxE.multiply(invR).mod(curve.N);
+        BigInteger u2 = s.multiply(invR).mod(curve.N);
+        Point qQ = Math.multiplyAndAdd(curve.G, u1, rR, u2, curve.N, curve.A, curve.P);
+        int len = curve.length();
+        byte[] point = new byte[2 * len];
+        BigEndian.write(qQ.x, point, 0, len);
+        BigEndian.write(qQ.y, point, len, len);
 
         PublicKey publicKey = PublicKey.fromString(new ByteString(point), curve);
         return publicKey;
     }
 
-    /* replaced with generateSecureInfo for public */
-    private static String generateAddress(PublicKey publicKey, Boolean isCompressed) throws NoSuchAlgorithmException {
-        Point point = publicKey.point;
-        ByteString xStr = BinaryAscii.stringFromNumber(point.x, Curve.secp256k1.length());
-        ByteString yStr = BinaryAscii.stringFromNumber(point.y, Curve.secp256k1.length());
-        String encodePoint;
-        if(isCompressed){
-            ByteString hex = BinaryAscii.stringFromNumber(point.y,point.y.bitLength());
-            Integer prefix = 2 + (hex.getBytes()[hex.length() - 1] & 0x01);
-            encodePoint = BinaryAscii.hexFromBinary(new byte[]{prefix.byteValue()}) + BinaryAscii.hexFromBinary(xStr);
-        }else{
-            encodePoint = BinaryAscii.hexFromBinary(new byte[]{4}) + BinaryAscii.hexFromBinary(xStr)+ BinaryAscii.hexFromBinary(yStr);
-        }
-        MessageDigest hashFunc = MessageDigest.getInstance("SHA-256");
-        byte[] firstHash256 = hashFunc.digest(BinaryAscii.binaryFromHex(encodePoint));
-        byte[] secHashMd160 = Ripemd160.getHash(firstHash256);
-        byte[] vh160 = new byte[secHashMd160.length+1];
-        System.arraycopy(secHashMd160, 0, vh160, 1, secHashMd160.length);
-        byte[] hh = hashFunc.digest(hashFunc.digest(vh160));
-        byte[] addr = new byte[vh160.length + 4];
-        System.arraycopy(vh160, 0, addr, 0, vh160.length);
-        System.arraycopy(hh, 0, addr, vh160.length, 4);
-        return Base58.encode(addr);
+    /* replaced with generateSecureInfo for public, shared with KeyProvisioner */
+    static String generateAddress(PublicKey publicKey, Boolean isCompressed) {
+        return Addresses.fromPublicKey(publicKey, isCompressed);
     }
 
     /* not for public */
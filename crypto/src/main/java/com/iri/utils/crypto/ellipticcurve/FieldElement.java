@@ -0,0 +1,451 @@
+package com.iri.utils.crypto.ellipticcurve;
+import com.iri.utils.crypto.ellipticcurve.utils.BigEndian;
+import java.math.BigInteger;
+
+
+/**
+ * Mutable element of the secp256k1 base field, i.e. an integer modulo P = 2^256 - 2^32 - 977.
+ * <p>
+ * The value is kept in ten 26-bit limbs (the top limb holds the remaining 22 bits), so every limb
+ * product and every column sum of a multiplication fits in a signed long. Reduction uses
+ * 2^256 = 2^32 + 977 (mod P) instead of a division.
+ * <p>
+ * Arithmetic leaves the value weakly normalized: all limbs are in range and the value is below
+ * 2^256, but it may still be greater than or equal to P. Use {@link #normalize()} before looking at
+ * the limbs directly. All operations write their result into {@code this} and accept {@code this}
+ * as one of their arguments.
+ */
+public final class FieldElement {
+
+    public static final BigInteger P = new BigInteger("fffffffffffffffffffffffffffffffffffffffffffffffffffffffefffffc2f", 16);
+
+    private static final int M26 = 0x3FFFFFF;
+    private static final int M22 = 0x3FFFFF;
+
+    // limbs of 2 * P, used to negate without borrowing
+    private static final long[] TWO_P = {
+        0x3FFFC2FL * 2, 0x3FFFFBFL * 2, 0x3FFFFFFL * 2, 0x3FFFFFFL * 2, 0x3FFFFFFL * 2,
+        0x3FFFFFFL * 2, 0x3FFFFFFL * 2, 0x3FFFFFFL * 2, 0x3FFFFFFL * 2, 0x3FFFFFL * 2
+    };
+
+    private final int[] n = new int[10];
+
+    public FieldElement() {
+    }
+
+    public FieldElement(int value) {
+        setInt(value);
+    }
+
+    public FieldElement(FieldElement other) {
+        set(other);
+    }
+
+    public static FieldElement fromBigInteger(BigInteger value) {
+        FieldElement r = new FieldElement();
+        r.setBigInteger(value);
+        return r;
+    }
+
+    public FieldElement set(FieldElement other) {
+        System.arraycopy(other.n, 0, n, 0, 10);
+        return this;
+    }
+
+    public FieldElement setInt(int value) {
+        if (value < 0 || value > M26) {
+            throw new IllegalArgumentException("small field value out of range: " + value);
+        }
+        java.util.Arrays.fill(n, 0);
+        n[0] = value;
+        return this;
+    }
+
+    public FieldElement setBigInteger(BigInteger value) {
+        if (value.signum() < 0 || value.bitLength() > 256) {
+            value = value.mod(P);
+        }
+        return setBytes(BigEndian.toBytes(value, 32), 0);
+    }
+
+    /**
+     * Load a 32 byte big-endian number. Values greater than or equal to P are accepted and reduced lazily.
+     *
+     * @param bytes source array
+     * @param offset index of the most significant byte
+     * @return this element
+     */
+    public FieldElement setBytes(byte[] bytes, int offset) {
+        long acc = 0;
+        int bits = 0;
+        int limb = 0;
+        for (int i = offset + 31; i >= offset; i--) {
+            acc |= (long) (bytes[i] & 0xFF) << bits;
+            bits += 8;
+            if (bits >= 26 && limb < 9) {
+                n[limb++] = (int) (acc & M26);
+                acc >>>= 26;
+                bits -= 26;
+            }
+        }
+        n[9] = (int) acc;
+        return this;
+    }
+
+    /**
+     * Store the fully reduced value as a 32 byte big-endian number.
+     *
+     * @param out destination array
+     * @param offset index where the most significant byte is written
+     */
+    public void getBytes(byte[] out, int offset) {
+        normalize();
+        long acc = 0;
+        int bits = 0;
+        int limb = 0;
+        for (int i = offset + 31; i >= offset; i--) {
+            if (bits < 8 && limb < 10) {
+                acc |= (long) n[limb] << bits;
+                bits += limb == 9 ? 22 : 26;
+                limb++;
+            }
+            out[i] = (byte) acc;
+            acc >>>= 8;
+            bits -= 8;
+        }
+    }
+
+    public byte[] getBytes() {
+        byte[] out = new byte[32];
+        getBytes(out, 0);
+        return out;
+    }
+
+    public BigInteger toBigInteger() {
+        return new BigInteger(1, getBytes());
+    }
+
+    /**
+     * Reduce the value to the canonical range [0, P).
+     *
+     * @return this element
+     */
+    public FieldElement normalize() {
+        // v >= P exactly when v + (2^32 + 977) overflows 2^256
+        long t0 = n[0] + 977L, t1 = n[1] + 64L, t2 = n[2], t3 = n[3], t4 = n[4];
+        long t5 = n[5], t6 = n[6], t7 = n[7], t8 = n[8], t9 = n[9];
+        t1 += t0 >>> 26; t0 &= M26;
+        t2 += t1 >>> 26; t1 &= M26;
+        t3 += t2 >>> 26; t2 &= M26;
+        t4 += t3 >>> 26; t3 &= M26;
+        t5 += t4 >>> 26; t4 &= M26;
+        t6 += t5 >>> 26; t5 &= M26;
+        t7 += t6 >>> 26; t6 &= M26;
+        t8 += t7 >>> 26; t7 &= M26;
+        t9 += t8 >>> 26; t8 &= M26;
+        int mask = -(int) (t9 >>> 22);
+        t9 &= M22;
+        n[0] = (n[0] & ~mask) | ((int) t0 & mask);
+        n[1] = (n[1] & ~mask) | ((int) t1 & mask);
+        n[2] = (n[2] & ~mask) | ((int) t2 & mask);
+        n[3] = (n[3] & ~mask) | ((int) t3 & mask);
+        n[4] = (n[4] & ~mask) | ((int) t4 & mask);
+        n[5] = (n[5] & ~mask) | ((int) t5 & mask);
+        n[6] = (n[6] & ~mask) | ((int) t6 & mask);
+        n[7] = (n[7] & ~mask) | ((int) t7 & mask);
+        n[8] = (n[8] & ~mask) | ((int) t8 & mask);
+        n[9] = (n[9] & ~mask) | ((int) t9 & mask);
+        return this;
+    }
+
+    /**
+     * @return true if the value is congruent to zero, without modifying the element
+     */
+    public boolean isZero() {
+        int zero = 0;
+        int p = 0;
+        for (int i = 0; i < 10; i++) {
+            zero |= n[i];
+        }
+        p |= n[0] ^ 0x3FFFC2F;
+        p |= n[1] ^ 0x3FFFFBF;
+        for (int i = 2; i < 9; i++) {
+            p |= n[i] ^ M26;
+        }
+        p |= n[9] ^ M22;
+        return zero == 0 || p == 0;
+    }
+
+    public boolean isOdd() {
+        normalize();
+        return (n[0] & 1) != 0;
+    }
+
+    public boolean equals(FieldElement other) {
+        normalize();
+        other.normalize();
+        int diff = 0;
+        for (int i = 0; i < 10; i++) {
+            diff |= n[i] ^ other.n[i];
+        }
+        return diff == 0;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof FieldElement && equals((FieldElement) other);
+    }
+
+    @Override
+    public int hashCode() {
+        normalize();
+        return java.util.Arrays.hashCode(n);
+    }
+
+    @Override
+    public String toString() {
+        return toBigInteger().toString(16);
+    }
+
+    public FieldElement add(FieldElement a, FieldElement b) {
+        int[] x = a.n;
+        int[] y = b.n;
+        return carry((long) x[0] + y[0], (long) x[1] + y[1], (long) x[2] + y[2], (long) x[3] + y[3], (long) x[4] + y[4],
+                (long) x[5] + y[5], (long) x[6] + y[6], (long) x[7] + y[7], (long) x[8] + y[8], (long) x[9] + y[9]);
+    }
+
+    public FieldElement sub(FieldElement a, FieldElement b) {
+        int[] x = a.n;
+        int[] y = b.n;
+        return carry(x[0] + TWO_P[0] - y[0], x[1] + TWO_P[1] - y[1], x[2] + TWO_P[2] - y[2], x[3] + TWO_P[3] - y[3],
+                x[4] + TWO_P[4] - y[4], x[5] + TWO_P[5] - y[5], x[6] + TWO_P[6] - y[6], x[7] + TWO_P[7] - y[7],
+                x[8] + TWO_P[8] - y[8], x[9] + TWO_P[9] - y[9]);
+    }
+
+    public FieldElement negate(FieldElement a) {
+        int[] x = a.n;
+        return carry(TWO_P[0] - x[0], TWO_P[1] - x[1], TWO_P[2] - x[2], TWO_P[3] - x[3], TWO_P[4] - x[4],
+                TWO_P[5] - x[5], TWO_P[6] - x[6], TWO_P[7] - x[7], TWO_P[8] - x[8], TWO_P[9] - x[9]);
+    }
+
+    /**
+     * Multiply by a small non-negative constant such as 2, 3 or 8.
+     *
+     * @param a element to multiply
+     * @param k factor, at most 2^26
+     * @return this element
+     */
+    public FieldElement mulInt(FieldElement a, int k) {
+        int[] x = a.n;
+        return carry((long) x[0] * k, (long) x[1] * k, (long) x[2] * k, (long) x[3] * k, (long) x[4] * k,
+                (long) x[5] * k, (long) x[6] * k, (long) x[7] * k, (long) x[8] * k, (long) x[9] * k);
+    }
+
+    public FieldElement mul(FieldElement a, FieldElement b) {
+        long a0 = a.n[0], a1 = a.n[1], a2 = a.n[2], a3 = a.n[3], a4 = a.n[4];
+        long a5 = a.n[5], a6 = a.n[6], a7 = a.n[7], a8 = a.n[8], a9 = a.n[9];
+        long b0 = b.n[0], b1 = b.n[1], b2 = b.n[2], b3 = b.n[3], b4 = b.n[4];
+        long b5 = b.n[5], b6 = b.n[6], b7 = b.n[7], b8 = b.n[8], b9 = b.n[9];
+
+        long c0 = a0 * b0;
+        long c1 = a0 * b1 + a1 * b0;
+        long c2 = a0 * b2 + a1 * b1 + a2 * b0;
+        long c3 = a0 * b3 + a1 * b2 + a2 * b1 + a3 * b0;
+        long c4 = a0 * b4 + a1 * b3 + a2 * b2 + a3 * b1 + a4 * b0;
+        long c5 = a0 * b5 + a1 * b4 + a2 * b3 + a3 * b2 + a4 * b1 + a5 * b0;
+        long c6 = a0 * b6 + a1 * b5 + a2 * b4 + a3 * b3 + a4 * b2 + a5 * b1 + a6 * b0;
+        long c7 = a0 * b7 + a1 * b6 + a2 * b5 + a3 * b4 + a4 * b3 + a5 * b2 + a6 * b1 + a7 * b0;
+        long c8 = a0 * b8 + a1 * b7 + a2 * b6 + a3 * b5 + a4 * b4 + a5 * b3 + a6 * b2 + a7 * b1 + a8 * b0;
+        long c9 = a0 * b9 + a1 * b8 + a2 * b7 + a3 * b6 + a4 * b5 + a5 * b4 + a6 * b3 + a7 * b2 + a8 * b1 + a9 * b0;
+        long c10 = a1 * b9 + a2 * b8 + a3 * b7 + a4 * b6 + a5 * b5 + a6 * b4 + a7 * b3 + a8 * b2 + a9 * b1;
+        long c11 = a2 * b9 + a3 * b8 + a4 * b7 + a5 * b6 + a6 * b5 + a7 * b4 + a8 * b3 + a9 * b2;
+        long c12 = a3 * b9 + a4 * b8 + a5 * b7 + a6 * b6 + a7 * b5 + a8 * b4 + a9 * b3;
+        long c13 = a4 * b9 + a5 * b8 + a6 * b7 + a7 * b6 + a8 * b5 + a9 * b4;
+        long c14 = a5 * b9 + a6 * b8 + a7 * b7 + a8 * b6 + a9 * b5;
+        long c15 = a6 * b9 + a7 * b8 + a8 * b7 + a9 * b6;
+        long c16 = a7 * b9 + a8 * b8 + a9 * b7;
+        long c17 = a8 * b9 + a9 * b8;
+        long c18 = a9 * b9;
+
+        return reduce(c0, c1, c2, c3, c4, c5, c6, c7, c8, c9, c10, c11, c12, c13, c14, c15, c16, c17, c18);
+    }
+
+    public FieldElement sqr(FieldElement a) {
+        long a0 = a.n[0], a1 = a.n[1], a2 = a.n[2], a3 = a.n[3], a4 = a.n[4];
+        long a5 = a.n[5], a6 = a.n[6], a7 = a.n[7], a8 = a.n[8], a9 = a.n[9];
+
+        long c0 = a0 * a0;
+        long c1 = a0 * a1 * 2;
+        long c2 = a0 * a2 * 2 + a1 * a1;
+        long c3 = (a0 * a3 + a1 * a2) * 2;
+        long c4 = (a0 * a4 + a1 * a3) * 2 + a2 * a2;
+        long c5 = (a0 * a5 + a1 * a4 + a2 * a3) * 2;
+        long c6 = (a0 * a6 + a1 * a5 + a2 * a4) * 2 + a3 * a3;
+        long c7 = (a0 * a7 + a1 * a6 + a2 * a5 + a3 * a4) * 2;
+        long c8 = (a0 * a8 + a1 * a7 + a2 * a6 + a3 * a5) * 2 + a4 * a4;
+        long c9 = (a0 * a9 + a1 * a8 + a2 * a7 + a3 * a6 + a4 * a5) * 2;
+        long c10 = (a1 * a9 + a2 * a8 + a3 * a7 + a4 * a6) * 2 + a5 * a5;
+        long c11 = (a2 * a9 + a3 * a8 + a4 * a7 + a5 * a6) * 2;
+        long c12 = (a3 * a9 + a4 * a8 + a5 * a7) * 2 + a6 * a6;
+        long c13 = (a4 * a9 + a5 * a8 + a6 * a7) * 2;
+        long c14 = (a5 * a9 + a6 * a8) * 2 + a7 * a7;
+        long c15 = (a6 * a9 + a7 * a8) * 2;
+        long c16 = a7 * a9 * 2 + a8 * a8;
+        long c17 = a8 * a9 * 2;
+        long c18 = a9 * a9;
+
+        return reduce(c0, c1, c2, c3, c4, c5, c6, c7, c8, c9, c10, c11, c12, c13, c14, c15, c16, c17, c18);
+    }
+
+    /**
+     * Multiplicative inverse as a^(P - 2), using the fixed addition chain of libsecp256k1: 255 squarings and
+     * 15 multiplications whatever the value, so it is safe on secrets. The inverse of zero is zero.
+     *
+     * @param a element to invert
+     * @return this element
+     */
+    public FieldElement invert(FieldElement a) {
+        // xk = a^(2^k - 1)
+        FieldElement x2 = new FieldElement().sqr(a).mul(a);
+        FieldElement x3 = new FieldElement().sqr(x2).mul(a);
+        FieldElement x6 = squareTimes(x3, 3).mul(x3);
+        FieldElement x9 = squareTimes(x6, 3).mul(x3);
+        FieldElement x11 = squareTimes(x9, 2).mul(x2);
+        FieldElement x22 = squareTimes(x11, 11).mul(x11);
+        FieldElement x44 = squareTimes(x22, 22).mul(x22);
+        FieldElement x88 = squareTimes(x44, 44).mul(x44);
+        FieldElement x176 = squareTimes(x88, 88).mul(x88);
+        FieldElement x220 = squareTimes(x176, 44).mul(x44);
+        FieldElement x223 = squareTimes(x220, 3).mul(x3);
+        // P - 2 is 223 ones followed by the 33 bits 0 (22 ones) 00001 011 01
+        FieldElement t = squareTimes(x223, 23).mul(x22);
+        t = squareTimes(t, 5).mul(a);
+        t = squareTimes(t, 3).mul(x2);
+        t = squareTimes(t, 2).mul(a);
+        return set(t);
+    }
+
+    /**
+     * Multiplicative inverse, computed through {@link BigInteger#modInverse}. Runs in variable time, so it
+     * must only be used on public values. The inverse of zero is zero.
+     *
+     * @param a element to invert
+     * @return this element
+     */
+    public FieldElement invertVar(FieldElement a) {
+        if (a.isZero()) {
+            return setInt(0);
+        }
+        return setBigInteger(a.toBigInteger().modInverse(P));
+    }
+
+    private FieldElement mul(FieldElement b) {
+        return mul(this, b);
+    }
+
+    /* a^(2^k) in a new element */
+    private static FieldElement squareTimes(FieldElement a, int k) {
+        FieldElement r = new FieldElement(a);
+        for (int i = 0; i < k; i++) {
+            r.sqr(r);
+        }
+        return r;
+    }
+
+    /*
+     * Fold the 19 column sums of a product back into ten limbs. The columns from 2^260 upwards are
+     * multiplied by 2^260 mod P = 2^36 + 0x3D10, which splits into a small multiple of the same limb
+     * plus a shifted contribution to the next one.
+     */
+    private FieldElement reduce(long c0, long c1, long c2, long c3, long c4, long c5, long c6, long c7, long c8, long c9,
+                                long c10, long c11, long c12, long c13, long c14, long c15, long c16, long c17, long c18) {
+        c1 += c0 >>> 26; c0 &= M26;
+        c2 += c1 >>> 26; c1 &= M26;
+        c3 += c2 >>> 26; c2 &= M26;
+        c4 += c3 >>> 26; c3 &= M26;
+        c5 += c4 >>> 26; c4 &= M26;
+        c6 += c5 >>> 26; c5 &= M26;
+        c7 += c6 >>> 26; c6 &= M26;
+        c8 += c7 >>> 26; c7 &= M26;
+        c9 += c8 >>> 26; c8 &= M26;
+        c10 += c9 >>> 26; c9 &= M26;
+        c11 += c10 >>> 26; c10 &= M26;
+        c12 += c11 >>> 26; c11 &= M26;
+        c13 += c12 >>> 26; c12 &= M26;
+        c14 += c13 >>> 26; c13 &= M26;
+        c15 += c14 >>> 26; c14 &= M26;
+        c16 += c15 >>> 26; c15 &= M26;
+        c17 += c16 >>> 26; c16 &= M26;
+        c18 += c17 >>> 26; c17 &= M26;
+        long c19 = c18 >>> 26; c18 &= M26;
+
+        long d0 = c0 + c10 * 0x3D10;
+        long d1 = c1 + c11 * 0x3D10 + (c10 << 10);
+        long d2 = c2 + c12 * 0x3D10 + (c11 << 10);
+        long d3 = c3 + c13 * 0x3D10 + (c12 << 10);
+        long d4 = c4 + c14 * 0x3D10 + (c13 << 10);
+        long d5 = c5 + c15 * 0x3D10 + (c14 << 10);
+        long d6 = c6 + c16 * 0x3D10 + (c15 << 10);
+        long d7 = c7 + c17 * 0x3D10 + (c16 << 10);
+        long d8 = c8 + c18 * 0x3D10 + (c17 << 10);
+        long d9 = c9 + c19 * 0x3D10 + (c18 << 10);
+        long d10 = c19 << 10;
+
+        d1 += d0 >>> 26; d0 &= M26;
+        d2 += d1 >>> 26; d1 &= M26;
+        d3 += d2 >>> 26; d2 &= M26;
+        d4 += d3 >>> 26; d3 &= M26;
+        d5 += d4 >>> 26; d4 &= M26;
+        d6 += d5 >>> 26; d5 &= M26;
+        d7 += d6 >>> 26; d6 &= M26;
+        d8 += d7 >>> 26; d7 &= M26;
+        d9 += d8 >>> 26; d8 &= M26;
+        long top = (d9 >>> 22) + (d10 << 4);
+        d9 &= M22;
+
+        return carry(d0 + top * 977, d1 + (top << 6), d2, d3, d4, d5, d6, d7, d8, d9);
+    }
+
+    /*
+     * Propagate carries through non-negative limbs and fold everything above 2^256 back in
+     * as a multiple of 2^32 + 977 until the value fits in 256 bits.
+     */
+    private FieldElement carry(long d0, long d1, long d2, long d3, long d4, long d5, long d6, long d7, long d8, long d9) {
+        for (int round = 0; round < 2; round++) {
+            d1 += d0 >>> 26; d0 &= M26;
+            d2 += d1 >>> 26; d1 &= M26;
+            d3 += d2 >>> 26; d2 &= M26;
+            d4 += d3 >>> 26; d3 &= M26;
+            d5 += d4 >>> 26; d4 &= M26;
+            d6 += d5 >>> 26; d5 &= M26;
+            d7 += d6 >>> 26; d6 &= M26;
+            d8 += d7 >>> 26; d7 &= M26;
+            d9 += d8 >>> 26; d8 &= M26;
+            long top = d9 >>> 22;
+            d9 &= M22;
+            d0 += top * 977;
+            d1 += top << 6;
+        }
+        d1 += d0 >>> 26; d0 &= M26;
+        d2 += d1 >>> 26; d1 &= M26;
+        d3 += d2 >>> 26; d2 &= M26;
+        d4 += d3 >>> 26; d3 &= M26;
+        d5 += d4 >>> 26; d4 &= M26;
+        d6 += d5 >>> 26; d5 &= M26;
+        d7 += d6 >>> 26; d6 &= M26;
+        d8 += d7 >>> 26; d7 &= M26;
+        d9 += d8 >>> 26; d8 &= M26;
+
+        n[0] = (int) d0;
+        n[1] = (int) d1;
+        n[2] = (int) d2;
+        n[3] = (int) d3;
+        n[4] = (int) d4;
+        n[5] = (int) d5;
+        n[6] = (int) d6;
+        n[7] = (int) d7;
+        n[8] = (int) d8;
+        n[9] = (int) d9;
+        return this;
+    }
+}
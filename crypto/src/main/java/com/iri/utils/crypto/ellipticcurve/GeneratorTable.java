@@ -0,0 +1,94 @@
+package com.iri.utils.crypto.ellipticcurve;
+import java.math.BigInteger;
+
+
+/**
+ * Precomputed fixed-base table for multiplying the generator of secp256k1.
+ * <p>
+ * The scalar is cut into 64 windows of 4 bits. For window i the table holds the affine points
+ * d * 16^i * G for d = 1..15, so k * G is the sum of at most 64 table entries and needs no doublings.
+ * <p>
+ * It also keeps the odd multiples G, 3G, ..., 127G in affine form for a width-8 wNAF, which is what the
+ * generator term of a double multiplication such as u1 * G + u2 * Q in verification needs, together
+ * with the x coordinates of their images under the {@link Glv} endomorphism.
+ * The table is built once per {@link Curve}, see {@link Curve#generatorTable()}, and brought to affine
+ * form with a single field inversion.
+ */
+final class GeneratorTable {
+
+    static final int WINDOW_BITS = 4;
+    static final int WINDOWS = 256 / WINDOW_BITS;
+    private static final int ENTRIES = (1 << WINDOW_BITS) - 1;
+    static final int WNAF_WINDOW = 8;
+
+    private final FieldElement[] xs = new FieldElement[WINDOWS * ENTRIES];
+    private final FieldElement[] ys = new FieldElement[WINDOWS * ENTRIES];
+    private final FieldElement[] oddXs = new FieldElement[Wnaf.tableSize(WNAF_WINDOW)];
+    private final FieldElement[] oddYs = new FieldElement[Wnaf.tableSize(WNAF_WINDOW)];
+    private final FieldElement[] oddLambdaXs = new FieldElement[Wnaf.tableSize(WNAF_WINDOW)];
+    private final BigInteger N;
+
+    GeneratorTable(Curve curve) {
+        this.N = curve.N;
+        JacobianPoint[] entries = new JacobianPoint[WINDOWS * ENTRIES];
+        JacobianPoint base = new JacobianPoint().setAffine(curve.G);
+        JacobianPoint acc = new JacobianPoint();
+        for (int i = 0; i < WINDOWS; i++) {
+            acc.set(base);
+            for (int d = 1; d <= ENTRIES; d++) {
+                entries[i * ENTRIES + d - 1] = new JacobianPoint().set(acc);
+                acc.add(acc, base);
+            }
+            // acc is now 16 * base, the base of the next window
+            base.set(acc);
+        }
+        JacobianPoint.toAffine(entries, xs, ys);
+
+        JacobianPoint[] odd = Math.oddMultiples(new JacobianPoint().setAffine(curve.G), WNAF_WINDOW);
+        JacobianPoint.toAffine(odd, oddXs, oddYs);
+        for (int i = 0; i < odd.length; i++) {
+            oddLambdaXs[i] = Glv.mapX(oddXs[i], new FieldElement());
+        }
+    }
+
+    /**
+     * @param n scalar, reduced modulo N if needed
+     * @return n * G in Jacobian coordinates
+     */
+    JacobianPoint multiply(BigInteger n) {
+        if (n.signum() < 0 || n.compareTo(N) >= 0) {
+            n = n.mod(N);
+        }
+        byte[] bytes = n.toByteArray();
+        JacobianPoint r = new JacobianPoint();
+        int window = 0;
+        for (int i = bytes.length - 1; i >= 0 && window < WINDOWS; i--) {
+            int b = bytes[i] & 0xFF;
+            add(r, window++, b & 0x0F);
+            add(r, window++, b >>> 4);
+        }
+        return r;
+    }
+
+    /**
+     * r = r + digit * G, or r + digit * lambda * G, for a wNAF digit of width {@link #WNAF_WINDOW}; zero
+     * digits are ignored. The table is shared between threads, so negative digits negate into the caller's
+     * scratch element.
+     */
+    void addOddMultiple(JacobianPoint r, int digit, boolean lambda, FieldElement scratch) {
+        FieldElement[] x = lambda ? oddLambdaXs : oddXs;
+        if (digit > 0) {
+            r.addAffine(r, x[digit >> 1], oddYs[digit >> 1]);
+        } else if (digit < 0) {
+            int index = -digit >> 1;
+            r.addAffine(r, x[index], scratch.negate(oddYs[index]));
+        }
+    }
+
+    private void add(JacobianPoint r, int window, int digit) {
+        if (digit != 0) {
+            int index = window * ENTRIES + digit - 1;
+            r.addAffine(r, xs[index], ys[index]);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.iri.utils.crypto.ellipticcurve;
+import java.math.BigInteger;
+
+
+/**
+ * GLV endomorphism of secp256k1.
+ * <p>
+ * The map phi(x, y) = (beta * x, y) multiplies every point by lambda, where beta is a cube root of unity
+ * modulo P and lambda one modulo N. Splitting a scalar as k = k1 + k2 * lambda (mod N) with k1, k2 of about
+ * 128 bits turns k * p into k1 * p + k2 * phi(p), which halves the number of doublings.
+ */
+final class Glv {
+
+    static final BigInteger LAMBDA = new BigInteger("5363ad4cc05c30e0a5261c028812645a122e22ea20816678df02967c1b23bd72", 16);
+    static final BigInteger BETA = new BigInteger("7ae96a2b657c07106e64479eac3434e99cf0497512f58995c1396c28719501ee", 16);
+
+    // short basis of the lattice {(a, b) : a + b * lambda = 0 (mod N)}; b2 equals a1
+    private static final BigInteger A1 = new BigInteger("3086d221a7d46bcde86c90e49284eb15", 16);
+    private static final BigInteger MINUS_B1 = new BigInteger("e4437ed6010e88286f547fa90abfe4c3", 16);
+    private static final BigInteger A2 = new BigInteger("114ca50f7a8e2f3f657c1108d9d44cfd8", 16);
+    private static final BigInteger B2 = A1;
+
+    private static final BigInteger N = Curve.secp256k1.N;
+    private static final BigInteger HALF_N = N.shiftRight(1);
+    private static final FieldElement BETA_ELEMENT = FieldElement.fromBigInteger(BETA);
+
+    private Glv() {
+        throw new UnsupportedOperationException("Glv is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * @param N order the scalars are reduced with
+     * @return true if that is the secp256k1 order, for which the endomorphism is defined
+     */
+    static boolean appliesTo(BigInteger N) {
+        return N == Glv.N || Glv.N.equals(N);
+    }
+
+    /**
+     * @param k scalar in [0, N)
+     * @return {k1, k2} with k = k1 + k2 * lambda (mod N); both may be negative and fit in 129 bits signed
+     */
+    static BigInteger[] split(BigInteger k) {
+        BigInteger c1 = B2.multiply(k).add(HALF_N).divide(N);
+        BigInteger c2 = MINUS_B1.multiply(k).add(HALF_N).divide(N);
+        BigInteger k1 = k.subtract(c1.multiply(A1)).subtract(c2.multiply(A2));
+        BigInteger k2 = c1.multiply(MINUS_B1).subtract(c2.multiply(B2));
+        return new BigInteger[]{k1, k2};
+    }
+
+    /**
+     * @param x affine or Jacobian x coordinate of p
+     * @param out receives the x coordinate of phi(p) in the same representation
+     */
+    static FieldElement mapX(FieldElement x, FieldElement out) {
+        return out.mul(x, BETA_ELEMENT);
+    }
+
+    /**
+     * @return phi applied to every point of the table
+     */
+    static JacobianPoint[] map(JacobianPoint[] table) {
+        JacobianPoint[] mapped = new JacobianPoint[table.length];
+        for (int i = 0; i < table.length; i++) {
+            mapped[i] = new JacobianPoint().set(table[i]);
+            mapX(table[i].x, mapped[i].x);
+        }
+        return mapped;
+    }
+}
@@ -0,0 +1,288 @@
+package com.iri.utils.crypto.ellipticcurve;
+import java.math.BigInteger;
+
+
+/**
+ * Mutable secp256k1 point in Jacobian coordinates (X / Z^2, Y / Z^3) backed by {@link FieldElement}s.
+ * <p>
+ * Every instance carries its own scratch elements, so doubling and adding into an existing point
+ * allocates nothing. The formulas assume A = 0.
+ */
+final class JacobianPoint {
+
+    final FieldElement x = new FieldElement();
+    final FieldElement y = new FieldElement();
+    final FieldElement z = new FieldElement();
+    boolean infinity = true;
+
+    private final FieldElement t1 = new FieldElement();
+    private final FieldElement t2 = new FieldElement();
+    private final FieldElement t3 = new FieldElement();
+    private final FieldElement t4 = new FieldElement();
+    private final FieldElement t5 = new FieldElement();
+    private final FieldElement t6 = new FieldElement();
+
+    JacobianPoint setInfinity() {
+        x.setInt(0);
+        y.setInt(0);
+        z.setInt(0);
+        infinity = true;
+        return this;
+    }
+
+    JacobianPoint set(JacobianPoint p) {
+        x.set(p.x);
+        y.set(p.y);
+        z.set(p.z);
+        infinity = p.infinity;
+        return this;
+    }
+
+    JacobianPoint setAffine(FieldElement ax, FieldElement ay) {
+        x.set(ax);
+        y.set(ay);
+        z.setInt(1);
+        infinity = false;
+        return this;
+    }
+
+    /**
+     * Load an affine point; (0, 0) is taken as the point at infinity like everywhere else in {@link Math}.
+     */
+    JacobianPoint setAffine(Point p) {
+        if (p.y == null || p.y.signum() == 0) {
+            return setInfinity();
+        }
+        x.setBigInteger(p.x);
+        y.setBigInteger(p.y);
+        z.setInt(1);
+        infinity = false;
+        return this;
+    }
+
+    /**
+     * Load a point whose z coordinate is a Jacobian denominator.
+     */
+    JacobianPoint setJacobian(Point p) {
+        if (p.y == null || p.y.signum() == 0 || p.z.signum() == 0) {
+            return setInfinity();
+        }
+        x.setBigInteger(p.x);
+        y.setBigInteger(p.y);
+        z.setBigInteger(p.z);
+        infinity = false;
+        return this;
+    }
+
+    JacobianPoint negate(JacobianPoint p) {
+        set(p);
+        y.negate(y);
+        return this;
+    }
+
+    /**
+     * @return the point with BigInteger Jacobian coordinates, (0, 0, 1) for infinity
+     */
+    Point toJacobianPoint() {
+        if (infinity) {
+            return new Point(BigInteger.ZERO, BigInteger.ZERO, BigInteger.ONE);
+        }
+        return new Point(x.toBigInteger(), y.toBigInteger(), z.toBigInteger());
+    }
+
+    /**
+     * @return the affine point, (0, 0) for infinity; the inversion runs in constant time
+     */
+    Point toAffinePoint() {
+        return toAffinePoint(false);
+    }
+
+    /**
+     * Same as {@link #toAffinePoint()} with a variable-time inversion, for points that are public such as
+     * those computed while verifying a signature
+     */
+    Point toAffinePointVar() {
+        return toAffinePoint(true);
+    }
+
+    private Point toAffinePoint(boolean variableTime) {
+        if (infinity) {
+            return new Point(BigInteger.ZERO, BigInteger.ZERO, BigInteger.ZERO);
+        }
+        FieldElement zInv = variableTime ? new FieldElement().invertVar(z) : new FieldElement().invert(z);
+        FieldElement zInv2 = new FieldElement().sqr(zInv);
+        FieldElement ax = new FieldElement().mul(x, zInv2);
+        FieldElement ay = new FieldElement().mul(y, zInv2.mul(zInv2, zInv));
+        return new Point(ax.toBigInteger(), ay.toBigInteger(), BigInteger.ZERO);
+    }
+
+    /**
+     * @param ax candidate affine x coordinate
+     * @return true if this point is finite and its affine x equals ax, checked as ax * Z^2 == X without an inversion
+     */
+    boolean hasAffineX(FieldElement ax) {
+        if (infinity) {
+            return false;
+        }
+        t1.sqr(z);
+        t1.mul(t1, ax);
+        return t1.equals(x);
+    }
+
+    /**
+     * Convert many points to affine coordinates with one field inversion (Montgomery's trick): the inverses
+     * of all Z come from 3(n - 1) multiplications and a single inversion of their product.
+     *
+     * @param points points to convert
+     * @param xs receives the affine x coordinates, null for points at infinity
+     * @param ys receives the affine y coordinates, null for points at infinity
+     */
+    static void toAffine(JacobianPoint[] points, FieldElement[] xs, FieldElement[] ys) {
+        // xs[i] holds the product of the Z of the finite points up to i until the backward pass
+        FieldElement acc = new FieldElement(1);
+        int last = -1;
+        for (int i = 0; i < points.length; i++) {
+            if (points[i].infinity) {
+                xs[i] = null;
+                ys[i] = null;
+                continue;
+            }
+            acc.mul(acc, points[i].z);
+            xs[i] = new FieldElement(acc);
+            last = i;
+        }
+        if (last < 0) {
+            return;
+        }
+        FieldElement inverse = new FieldElement().invert(acc);
+        FieldElement zInv = new FieldElement();
+        FieldElement zInv2 = new FieldElement();
+        for (int i = last; i >= 0; i--) {
+            JacobianPoint p = points[i];
+            if (p.infinity) {
+                continue;
+            }
+            int previous = i - 1;
+            while (previous >= 0 && points[previous].infinity) {
+                previous--;
+            }
+            if (previous >= 0) {
+                zInv.mul(inverse, xs[previous]);
+                inverse.mul(inverse, p.z);
+            } else {
+                zInv.set(inverse);
+            }
+            zInv2.sqr(zInv);
+            xs[i] = new FieldElement().mul(p.x, zInv2);
+            ys[i] = new FieldElement().mul(p.y, zInv2.mul(zInv2, zInv));
+        }
+    }
+
+    /**
+     * this = 2 * p (dbl-2009-l)
+     */
+    JacobianPoint doublePoint(JacobianPoint p) {
+        if (p.infinity || p.y.isZero()) {
+            return setInfinity();
+        }
+        t1.sqr(p.x);                       // A = X^2
+        t2.sqr(p.y);                       // B = Y^2
+        t3.sqr(t2);                        // C = B^2
+        t4.add(p.x, t2);
+        t4.sqr(t4);
+        t4.sub(t4, t1);
+        t4.sub(t4, t3);
+        t4.mulInt(t4, 2);                  // D = 2 * ((X + B)^2 - A - C)
+        t5.mulInt(t1, 3);                  // E = 3 * A
+        t6.sqr(t5);                        // F = E^2
+        z.mul(p.y, p.z);
+        z.mulInt(z, 2);                    // Z3 = 2 * Y * Z
+        x.mulInt(t4, 2);
+        x.sub(t6, x);                      // X3 = F - 2 * D
+        y.sub(t4, x);
+        y.mul(t5, y);
+        t3.mulInt(t3, 8);
+        y.sub(y, t3);                      // Y3 = E * (D - X3) - 8 * C
+        infinity = false;
+        return this;
+    }
+
+    /**
+     * this = p + q for two Jacobian points
+     */
+    JacobianPoint add(JacobianPoint p, JacobianPoint q) {
+        if (p.infinity) {
+            return set(q);
+        }
+        if (q.infinity) {
+            return set(p);
+        }
+        t1.sqr(q.z);
+        t2.sqr(p.z);
+        t3.mul(p.x, t1);                   // U1 = X1 * Z2^2
+        t4.mul(q.x, t2);                   // U2 = X2 * Z1^2
+        t5.mul(t1, q.z);
+        t5.mul(p.y, t5);                   // S1 = Y1 * Z2^3
+        t6.mul(t2, p.z);
+        t6.mul(q.y, t6);                   // S2 = Y2 * Z1^3
+        t4.sub(t4, t3);                    // H = U2 - U1
+        t6.sub(t6, t5);                    // R = S2 - S1
+        if (t4.isZero()) {
+            if (t6.isZero()) {
+                return doublePoint(p);
+            }
+            return setInfinity();
+        }
+        t1.sqr(t4);                        // H^2
+        t2.mul(t4, t1);                    // H^3
+        t3.mul(t3, t1);                    // U1 * H^2
+        t1.mul(p.z, q.z);
+        t1.mul(t1, t4);                    // Z3 = H * Z1 * Z2
+        x.sqr(t6);
+        x.sub(x, t2);
+        t4.mulInt(t3, 2);
+        x.sub(x, t4);                      // X3 = R^2 - H^3 - 2 * U1 * H^2
+        y.sub(t3, x);
+        y.mul(t6, y);
+        t5.mul(t5, t2);
+        y.sub(y, t5);                      // Y3 = R * (U1 * H^2 - X3) - S1 * H^3
+        z.set(t1);
+        infinity = false;
+        return this;
+    }
+
+    /**
+     * this = p + (qx, qy) where the second point is affine, saving the multiplications by its Z
+     */
+    JacobianPoint addAffine(JacobianPoint p, FieldElement qx, FieldElement qy) {
+        if (p.infinity) {
+            return setAffine(qx, qy);
+        }
+        t2.sqr(p.z);
+        t4.mul(qx, t2);                    // U2 = X2 * Z1^2
+        t6.mul(t2, p.z);
+        t6.mul(qy, t6);                    // S2 = Y2 * Z1^3
+        t4.sub(t4, p.x);                   // H = U2 - X1
+        t6.sub(t6, p.y);                   // R = S2 - Y1
+        if (t4.isZero()) {
+            if (t6.isZero()) {
+                return doublePoint(p);
+            }
+            return setInfinity();
+        }
+        t1.sqr(t4);                        // H^2
+        t2.mul(t4, t1);                    // H^3
+        t3.mul(p.x, t1);                   // X1 * H^2
+        t5.mul(p.y, t2);                   // Y1 * H^3
+        z.mul(p.z, t4);                    // Z3 = H * Z1
+        x.sqr(t6);
+        x.sub(x, t2);
+        t4.mulInt(t3, 2);
+        x.sub(x, t4);                      // X3 = R^2 - H^3 - 2 * X1 * H^2
+        y.sub(t3, x);
+        y.mul(t6, y);
+        y.sub(y, t5);                      // Y3 = R * (X1 * H^2 - X3) - Y1 * H^3
+        infinity = false;
+        return this;
+    }
+}
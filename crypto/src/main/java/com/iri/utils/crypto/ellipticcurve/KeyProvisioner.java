@@ -0,0 +1,111 @@
+package com.iri.utils.crypto.ellipticcurve;
+import com.iri.utils.crypto.ellipticcurve.utils.Entropy;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+
+/**
+ * Generates many (WIF private key, address) pairs, as {@link EcdsaUtils#generateSecureInfo()} does for one.
+ * <p>
+ * Keys are produced in batches. Every key is an independent random scalar; its public point comes from the
+ * generator table and all points of a batch are brought to affine form with one inversion
+ * ({@link Math#batchNormalize}). Batches run in parallel on a fork-join pool.
+ * <p>
+ * Keys are deliberately not derived by stepping one random point by G: consecutive keys would let anybody
+ * who learns one of them compute all the others.
+ */
+public final class KeyProvisioner {
+
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    private final ForkJoinPool pool;
+    private final int batchSize;
+
+    /**
+     * Provisioner on the common fork-join pool with the default batch size
+     */
+    public KeyProvisioner() {
+        this(ForkJoinPool.commonPool(), DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param pool Pool the batches are generated on
+     * @param batchSize Number of keys sharing one inversion
+     */
+    public KeyProvisioner(ForkJoinPool pool, int batchSize) {
+        if (pool == null) {
+            throw new IllegalArgumentException("pool must not be null");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException(String.format("batch size must be positive, got %d", batchSize));
+        }
+        this.pool = pool;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Lazily generated pairs; a terminal operation runs in parallel on the pool it is called from, see
+     * {@link #generate(long, Consumer)} to run it on this provisioner's pool
+     *
+     * @param count Number of pairs
+     */
+    public Stream<EcdsaUtils.SecureInfo> stream(long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException(String.format("count must not be negative, got %d", count));
+        }
+        long batches = (count + batchSize - 1) / batchSize;
+        return LongStream.range(0, batches).parallel()
+                .mapToObj(b -> batch((int) java.lang.Math.min(batchSize, count - b * batchSize)))
+                .flatMap(List::stream);
+    }
+
+    /**
+     * Hand every pair to the sink as soon as its batch is ready
+     *
+     * @param count Number of pairs
+     * @param sink Receives the pairs from several threads at once, in no particular order
+     */
+    public void generate(long count, Consumer<EcdsaUtils.SecureInfo> sink) {
+        pool.submit(() -> stream(count).forEach(sink)).join();
+    }
+
+    /**
+     * @param count Number of pairs
+     * @return The pairs
+     */
+    public List<EcdsaUtils.SecureInfo> generate(int count) {
+        return pool.submit(() -> stream(count).collect(Collectors.toList())).join();
+    }
+
+    /**
+     * @param size Number of pairs, sharing one inversion for their public points
+     */
+    static List<EcdsaUtils.SecureInfo> batch(int size) {
+        Curve curve = Curve.secp256k1;
+        Point g = Math.toJacobian(curve.G);
+        PrivateKey[] keys = new PrivateKey[size];
+        Point[] jacobian = new Point[size];
+        for (int i = 0; i < size; i++) {
+            BigInteger secret = Entropy.scalar(curve.N);
+            keys[i] = new PrivateKey(curve, secret);
+            jacobian[i] = Math.jacobianMultiply(g, secret, curve.N, curve.A, curve.P);
+        }
+        Point[] points = Math.batchNormalize(jacobian, curve.P);
+        PublicKey[] publicKeys = new PublicKey[size];
+        for (int i = 0; i < size; i++) {
+            publicKeys[i] = new PublicKey(points[i], curve);
+        }
+        String[] addresses = Addresses.fromPublicKeys(publicKeys, true);
+        List<EcdsaUtils.SecureInfo> infos = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            infos.add(new EcdsaUtils.SecureInfo(EcdsaUtils.convert2Base58(keys[i]), addresses[i]));
+        }
+        return infos;
+    }
+}
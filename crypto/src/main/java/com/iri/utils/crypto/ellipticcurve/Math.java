@@ -4,6 +4,11 @@ import java.math.BigInteger;
 
 public final class Math {
 
+    /**
+     * Window width of the wNAF used for points other than the generator
+     */
+    public static final int DEFAULT_WINDOW = 5;
+
     /**
      * Fast way to multiply point and scalar in elliptic curves
      *
@@ -15,7 +20,89 @@ public final class Math {
      * @return Point that represents the sum of First and Second Point
      */
     public static Point multiply(Point p, BigInteger n, BigInteger N, BigInteger A, BigInteger P) {
-        return fromJacobian(jacobianMultiply(toJacobian(p), n, N, A, P), P);
+        return multiply(p, n, N, A, P, DEFAULT_WINDOW);
+    }
+
+    /**
+     * Multiply point and scalar with a width-w NAF of the scalar
+     *
+     * @param p First Point to multiply
+     * @param n Scalar to multiply
+     * @param N Order of the elliptic curve
+     * @param A Coefficient of the first-order term of the equation Y^2 = X^3 + A*X + B (mod P)
+     * @param P Prime number in the module of the equation Y^2 = X^3 + A*X + B (mod P)
+     * @param window wNAF width between 2 and 8; wider windows trade a bigger table of odd multiples for fewer additions
+     * @return Point that represents the product of First Point and scalar
+     */
+    public static Point multiply(Point p, BigInteger n, BigInteger N, BigInteger A, BigInteger P, int window) {
+        Wnaf.checkWindow(window);
+        if (isSecp256k1Field(A, P)) {
+            if (isGenerator(p)) {
+                return Curve.secp256k1.generatorTable().multiply(n.mod(N)).toAffinePoint();
+            }
+            return multiply(new JacobianPoint().setAffine(p), n, N, window).toAffinePoint();
+        }
+        return fromJacobian(wnafMultiply(toJacobian(p), n, N, A, P, window), P);
+    }
+
+    /**
+     * Compute u1 * p + u2 * q in a single pass (Strauss-Shamir): both scalars share the same doublings
+     * and the sum is converted back from Jacobian coordinates only once
+     *
+     * @param p First Point to multiply
+     * @param u1 Scalar for the first point
+     * @param q Second Point to multiply
+     * @param u2 Scalar for the second point
+     * @param N Order of the elliptic curve
+     * @param A Coefficient of the first-order term of the equation Y^2 = X^3 + A*X + B (mod P)
+     * @param P Prime number in the module of the equation Y^2 = X^3 + A*X + B (mod P)
+     * @return Point that represents u1 * p + u2 * q
+     */
+    public static Point multiplyAndAdd(Point p, BigInteger u1, Point q, BigInteger u2, BigInteger N, BigInteger A, BigInteger P) {
+        if (isSecp256k1Field(A, P)) {
+            // verification and key recovery only combine public values, so the final inversion may be variable-time
+            return multiplyAndAdd(p, u1, q, u2, N).toAffinePointVar();
+        }
+        return fromJacobian(jacobianMultiplyAndAdd(p, u1, q, u2, N, A, P), P);
+    }
+
+    /**
+     * Check the x coordinate of u1 * p + u2 * q against a signature's r without leaving Jacobian coordinates:
+     * x == r (mod N) holds when c * Z^2 == X (mod P) for one of the candidates c = r, r + N, ... below P.
+     * On secp256k1 that is r and, for r < P - N, r + N.
+     *
+     * @param p First Point to multiply
+     * @param u1 Scalar for the first point
+     * @param q Second Point to multiply
+     * @param u2 Scalar for the second point
+     * @param r Value in [1, N - 1] the x coordinate is compared with modulo N
+     * @param N Order of the elliptic curve
+     * @param A Coefficient of the first-order term of the equation Y^2 = X^3 + A*X + B (mod p)
+     * @param P Prime number in the module of the equation Y^2 = X^3 + A*X + B (mod p)
+     * @return true if u1 * p + u2 * q is not infinity and its affine x is congruent to r modulo N
+     */
+    public static boolean multiplyAndAddHasX(Point p, BigInteger u1, Point q, BigInteger u2, BigInteger r, BigInteger N, BigInteger A, BigInteger P) {
+        if (isSecp256k1Field(A, P)) {
+            JacobianPoint sum = multiplyAndAdd(p, u1, q, u2, N);
+            for (BigInteger c = r; c.compareTo(P) < 0; c = c.add(N)) {
+                if (sum.hasAffineX(FieldElement.fromBigInteger(c))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        Point sum = jacobianMultiplyAndAdd(p, u1, q, u2, N, A, P);
+        if (sum.y.signum() == 0 || sum.z.signum() == 0) {
+            return false;
+        }
+        BigInteger z2 = sum.z.multiply(sum.z).mod(P);
+        BigInteger x = sum.x.mod(P);
+        for (BigInteger c = r; c.compareTo(P) < 0; c = c.add(N)) {
+            if (c.multiply(z2).mod(P).equals(x)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -28,35 +115,77 @@ public final class Math {
      * @return Point that represents the sum of First and Second Point
      */
     public static Point add(Point p, Point q, BigInteger A, BigInteger P) {
+        if (isSecp256k1Field(A, P)) {
+            JacobianPoint r = new JacobianPoint().setAffine(p);
+            return r.add(r, new JacobianPoint().setAffine(q)).toAffinePoint();
+        }
         return fromJacobian(jacobianAdd(toJacobian(p), toJacobian(q), A, P), P);
     }
 
     /**
-     * Extended Euclidean Algorithm. It's the 'division' in elliptic curves
+     * Modular inverse for public values. It runs in variable time; use {@link #invConstantTime} for
+     * secrets such as nonces and private keys.
      *
      * @param x Divisor
      * @param n Mod for division
-     * @return Value representing the division
+     * @return Value representing the division, zero if x is divisible by n
      */
     public static BigInteger inv(BigInteger x, BigInteger n) {
-        if (x.compareTo(BigInteger.ZERO) == 0) {
+        BigInteger r = x.signum() < 0 || x.compareTo(n) >= 0 ? x.mod(n) : x;
+        if (r.signum() == 0) {
             return BigInteger.ZERO;
         }
-        BigInteger lm = BigInteger.ONE;
-        BigInteger hm = BigInteger.ZERO;
-        BigInteger high = n;
-        BigInteger low = x.mod(n);
-        BigInteger r, nm, nw;
-        while (low.compareTo(BigInteger.ONE) > 0) {
-            r = high.divide(low);
-            nm = hm.subtract(lm.multiply(r));
-            nw = high.subtract(low.multiply(r));
-            high = low;
-            hm = lm;
-            low = nw;
-            lm = nm;
+        return r.modInverse(n);
+    }
+
+    /**
+     * Modular inverse for secret values, computed as x^(n - 2) with a fixed sequence of operations. The
+     * secp256k1 order and field prime use the limb implementations in {@link Scalar} and {@link FieldElement};
+     * other prime moduli fall back to {@link BigInteger#modPow}, which gives no timing guarantee.
+     *
+     * @param x Divisor
+     * @param n Prime mod for division
+     * @return Value representing the division, zero if x is divisible by n
+     */
+    public static BigInteger invConstantTime(BigInteger x, BigInteger n) {
+        if (Scalar.N.equals(n)) {
+            Scalar s = Scalar.fromBigInteger(x);
+            return s.invert(s).toBigInteger();
+        }
+        if (FieldElement.P.equals(n)) {
+            FieldElement e = FieldElement.fromBigInteger(x.mod(n));
+            return e.invert(e).toBigInteger();
         }
-        return lm.mod(n);
+        return x.mod(n).modPow(n.subtract(BigInteger.valueOf(2)), n);
+    }
+
+    /**
+     * Invert many values with a single call to {@link #inv} (Montgomery's trick): one inversion and
+     * 3(n - 1) multiplications instead of n inversions
+     *
+     * @param values Values to invert, none of them divisible by n
+     * @param n Mod for division
+     * @return Inverses in the same order as the values
+     */
+    public static BigInteger[] batchInverse(BigInteger[] values, BigInteger n) {
+        BigInteger[] inverses = new BigInteger[values.length];
+        if (values.length == 0) {
+            return inverses;
+        }
+        // inverses[i] holds the product of values[0..i] until the backward pass replaces it
+        BigInteger acc = BigInteger.ONE;
+        for (int i = 0; i < values.length; i++) {
+            acc = acc.multiply(values[i]).mod(n);
+            inverses[i] = acc;
+        }
+        acc = inv(acc, n);
+        for (int i = values.length - 1; i > 0; i--) {
+            BigInteger inverse = acc.multiply(inverses[i - 1]).mod(n);
+            acc = acc.multiply(values[i]).mod(n);
+            inverses[i] = inverse;
+        }
+        inverses[0] = acc;
+        return inverses;
     }
 
     /**
@@ -77,12 +206,67 @@ public final class Math {
      * @return Point in default coordinates
      */
     public static Point fromJacobian(Point p, BigInteger P) {
+        if (isSecp256k1Field(BigInteger.ZERO, P)) {
+            return new JacobianPoint().setJacobian(p).toAffinePoint();
+        }
         BigInteger z = inv(p.z, P);
         BigInteger x = p.x.multiply(z.pow(2)).mod(P);
         BigInteger y = p.y.multiply(z.pow(3)).mod(P);
         return new Point(x, y, BigInteger.ZERO);
     }
 
+    /**
+     * Convert many points back from Jacobian coordinates with a single inversion (Montgomery's trick)
+     *
+     * @param points Points in Jacobian coordinates; (0, 0) or a zero z stands for infinity
+     * @param P Prime number in the module of the equation Y^2 = X^3 + A*X + B (mod P)
+     * @return Points in default coordinates, in the same order, with (0, 0) for infinity
+     */
+    public static Point[] batchNormalize(Point[] points, BigInteger P) {
+        Point[] affine = new Point[points.length];
+        if (isSecp256k1Field(BigInteger.ZERO, P)) {
+            JacobianPoint[] jacobian = new JacobianPoint[points.length];
+            for (int i = 0; i < points.length; i++) {
+                jacobian[i] = new JacobianPoint().setJacobian(points[i]);
+            }
+            FieldElement[] xs = new FieldElement[points.length];
+            FieldElement[] ys = new FieldElement[points.length];
+            JacobianPoint.toAffine(jacobian, xs, ys);
+            for (int i = 0; i < points.length; i++) {
+                affine[i] = xs[i] == null
+                        ? new Point(BigInteger.ZERO, BigInteger.ZERO, BigInteger.ZERO)
+                        : new Point(xs[i].toBigInteger(), ys[i].toBigInteger(), BigInteger.ZERO);
+            }
+            return affine;
+        }
+        int count = 0;
+        BigInteger[] z = new BigInteger[points.length];
+        for (Point p : points) {
+            if (!isInfinity(p)) {
+                z[count++] = p.z;
+            }
+        }
+        BigInteger[] zInv = batchInverse(java.util.Arrays.copyOf(z, count), P);
+        int k = 0;
+        for (int i = 0; i < points.length; i++) {
+            Point p = points[i];
+            if (isInfinity(p)) {
+                affine[i] = new Point(BigInteger.ZERO, BigInteger.ZERO, BigInteger.ZERO);
+                continue;
+            }
+            BigInteger zInv2 = zInv[k].multiply(zInv[k]).mod(P);
+            BigInteger x = p.x.multiply(zInv2).mod(P);
+            BigInteger y = p.y.multiply(zInv2).multiply(zInv[k]).mod(P);
+            affine[i] = new Point(x, y, BigInteger.ZERO);
+            k++;
+        }
+        return affine;
+    }
+
+    private static boolean isInfinity(Point jacobian) {
+        return jacobian.y.signum() == 0 || jacobian.z.signum() == 0;
+    }
+
     /**
      * Double a point in elliptic curves
      *
@@ -95,6 +279,10 @@ public final class Math {
         if (p.y == null || p.y.compareTo(BigInteger.ZERO) == 0) {
             return new Point(BigInteger.ZERO, BigInteger.ZERO, BigInteger.ZERO);
         }
+        if (isSecp256k1Field(A, P)) {
+            JacobianPoint r = new JacobianPoint().setJacobian(p);
+            return r.doublePoint(r).toJacobianPoint();
+        }
         BigInteger ysq = p.y.pow(2).mod(P);
         BigInteger S = BigInteger.valueOf(4).multiply(p.x).multiply(ysq).mod(P);
         BigInteger M = BigInteger.valueOf(3).multiply(p.x.pow(2)).add(A.multiply(p.z.pow(4))).mod(P);
@@ -120,6 +308,10 @@ public final class Math {
         if (q.y == null || q.y.compareTo(BigInteger.ZERO) == 0) {
             return p;
         }
+        if (isSecp256k1Field(A, P)) {
+            JacobianPoint r = new JacobianPoint().setJacobian(p);
+            return r.add(r, new JacobianPoint().setJacobian(q)).toJacobianPoint();
+        }
         BigInteger U1 = p.x.multiply(q.z.pow(2)).mod(P);
         BigInteger U2 = q.x.multiply(p.z.pow(2)).mod(P);
         BigInteger S1 = p.y.multiply(q.z.pow(3)).mod(P);
@@ -158,15 +350,227 @@ public final class Math {
         if (BigInteger.ONE.compareTo(n) == 0) {
             return p;
         }
-        if (n.compareTo(BigInteger.ZERO) < 0 || n.compareTo(N) >= 0) {
-            return jacobianMultiply(p, n.mod(N), N, A, P);
+        if (isSecp256k1Field(A, P)) {
+            if (BigInteger.ONE.equals(p.z) && isGenerator(p)) {
+                return Curve.secp256k1.generatorTable().multiply(n.mod(N)).toJacobianPoint();
+            }
+            return multiply(new JacobianPoint().setJacobian(p), n, N, DEFAULT_WINDOW).toJacobianPoint();
+        }
+        return wnafMultiply(p, n, N, A, P, DEFAULT_WINDOW);
+    }
+
+    /**
+     * Whether the curve parameters match secp256k1, whose points are handled with {@link FieldElement}s
+     * instead of BigInteger arithmetic.
+     */
+    static boolean isSecp256k1Field(BigInteger A, BigInteger P) {
+        return A.signum() == 0 && (P == Curve.secp256k1.P || FieldElement.P.equals(P));
+    }
+
+    /**
+     * Whether the affine coordinates are those of the secp256k1 generator, which has a precomputed table.
+     */
+    static boolean isGenerator(Point p) {
+        Point g = Curve.secp256k1.G;
+        return p == g || (g.x.equals(p.x) && g.y.equals(p.y));
+    }
+
+    /**
+     * wNAF multiplication on BigInteger Jacobian points for curves other than secp256k1
+     */
+    private static Point wnafMultiply(Point p, BigInteger n, BigInteger N, BigInteger A, BigInteger P, int window) {
+        n = reduce(n, N);
+        Point r = new Point(BigInteger.ZERO, BigInteger.ZERO, BigInteger.ONE);
+        if (p.y == null || p.y.signum() == 0 || n.signum() == 0) {
+            return r;
+        }
+        int[] digits = Wnaf.compute(n, window);
+        Point[] table = new Point[Wnaf.tableSize(window)];
+        Point twice = jacobianDouble(p, A, P);
+        table[0] = p;
+        for (int i = 1; i < table.length; i++) {
+            table[i] = jacobianAdd(table[i - 1], twice, A, P);
+        }
+        for (int i = digits.length - 1; i >= 0; i--) {
+            r = jacobianDouble(r, A, P);
+            int d = digits[i];
+            if (d > 0) {
+                r = jacobianAdd(r, table[d >> 1], A, P);
+            } else if (d < 0) {
+                Point t = table[-d >> 1];
+                r = jacobianAdd(r, new Point(t.x, P.subtract(t.y), t.z), A, P);
+            }
+        }
+        return r;
+    }
+
+    /**
+     * u1 * p + u2 * q on secp256k1, picking the generator table when either point is G
+     */
+    private static JacobianPoint multiplyAndAdd(Point p, BigInteger u1, Point q, BigInteger u2, BigInteger N) {
+        if (isGenerator(p)) {
+            return multiplyAndAddG(u1, new JacobianPoint().setAffine(q), u2, N);
+        }
+        if (isGenerator(q)) {
+            return multiplyAndAddG(u2, new JacobianPoint().setAffine(p), u1, N);
+        }
+        return multiplyAndAdd(new JacobianPoint().setAffine(p), u1, new JacobianPoint().setAffine(q), u2, N);
+    }
+
+    /**
+     * u1 * p + u2 * q on any curve, in BigInteger Jacobian coordinates
+     */
+    private static Point jacobianMultiplyAndAdd(Point p, BigInteger u1, Point q, BigInteger u2, BigInteger N, BigInteger A, BigInteger P) {
+        return jacobianAdd(wnafMultiply(toJacobian(p), u1, N, A, P, DEFAULT_WINDOW), wnafMultiply(toJacobian(q), u2, N, A, P, DEFAULT_WINDOW), A, P);
+    }
+
+    /**
+     * wNAF multiplication on field element points, split in two halves with {@link Glv} for secp256k1
+     */
+    static JacobianPoint multiply(JacobianPoint p, BigInteger n, BigInteger N, int window) {
+        n = reduce(n, N);
+        if (p.infinity || n.signum() == 0) {
+            return new JacobianPoint();
+        }
+        JacobianPoint[] table = oddMultiples(p, window);
+        if (Glv.appliesTo(N)) {
+            BigInteger[] k = Glv.split(n);
+            return interleave(NO_DIGITS, NO_DIGITS,
+                    new int[][]{signedWnaf(k[0], window), signedWnaf(k[1], window)},
+                    new JacobianPoint[][]{table, Glv.map(table)});
+        }
+        return interleave(NO_DIGITS, NO_DIGITS, new int[][]{Wnaf.compute(n, window)}, new JacobianPoint[][]{table});
+    }
+
+    /**
+     * u1 * G + u2 * q, taking the generator's odd multiples from its precomputed affine table
+     */
+    static JacobianPoint multiplyAndAddG(BigInteger u1, JacobianPoint q, BigInteger u2, BigInteger N) {
+        u1 = reduce(u1, N);
+        u2 = reduce(u2, N);
+        boolean withQ = !q.infinity && u2.signum() != 0;
+        JacobianPoint[] table = withQ ? oddMultiples(q, DEFAULT_WINDOW) : null;
+        if (Glv.appliesTo(N)) {
+            BigInteger[] k1 = Glv.split(u1);
+            if (!withQ) {
+                return interleave(signedWnaf(k1[0], GeneratorTable.WNAF_WINDOW), signedWnaf(k1[1], GeneratorTable.WNAF_WINDOW),
+                        new int[0][], new JacobianPoint[0][]);
+            }
+            BigInteger[] k2 = Glv.split(u2);
+            return interleave(signedWnaf(k1[0], GeneratorTable.WNAF_WINDOW), signedWnaf(k1[1], GeneratorTable.WNAF_WINDOW),
+                    new int[][]{signedWnaf(k2[0], DEFAULT_WINDOW), signedWnaf(k2[1], DEFAULT_WINDOW)},
+                    new JacobianPoint[][]{table, Glv.map(table)});
+        }
+        if (!withQ) {
+            return interleave(Wnaf.compute(u1, GeneratorTable.WNAF_WINDOW), NO_DIGITS, new int[0][], new JacobianPoint[0][]);
+        }
+        return interleave(Wnaf.compute(u1, GeneratorTable.WNAF_WINDOW), NO_DIGITS,
+                new int[][]{Wnaf.compute(u2, DEFAULT_WINDOW)}, new JacobianPoint[][]{table});
+    }
+
+    /**
+     * u1 * p + u2 * q for two arbitrary points
+     */
+    static JacobianPoint multiplyAndAdd(JacobianPoint p, BigInteger u1, JacobianPoint q, BigInteger u2, BigInteger N) {
+        if (p.infinity) {
+            return multiply(q, u2, N, DEFAULT_WINDOW);
+        }
+        if (q.infinity) {
+            return multiply(p, u1, N, DEFAULT_WINDOW);
         }
-        if (n.mod(BigInteger.valueOf(2)).compareTo(BigInteger.ZERO) == 0) {
-            return jacobianDouble(jacobianMultiply(p, n.divide(BigInteger.valueOf(2)), N, A, P), A, P);
+        u1 = reduce(u1, N);
+        u2 = reduce(u2, N);
+        JacobianPoint[] table1 = oddMultiples(p, DEFAULT_WINDOW);
+        JacobianPoint[] table2 = oddMultiples(q, DEFAULT_WINDOW);
+        if (Glv.appliesTo(N)) {
+            BigInteger[] k1 = Glv.split(u1);
+            BigInteger[] k2 = Glv.split(u2);
+            return interleave(NO_DIGITS, NO_DIGITS,
+                    new int[][]{signedWnaf(k1[0], DEFAULT_WINDOW), signedWnaf(k1[1], DEFAULT_WINDOW),
+                            signedWnaf(k2[0], DEFAULT_WINDOW), signedWnaf(k2[1], DEFAULT_WINDOW)},
+                    new JacobianPoint[][]{table1, Glv.map(table1), table2, Glv.map(table2)});
         }
-        if (n.mod(BigInteger.valueOf(2)).compareTo(BigInteger.ONE) == 0) {
-            return jacobianAdd(jacobianDouble(jacobianMultiply(p, n.divide(BigInteger.valueOf(2)), N, A, P), A, P), p, A, P);
+        return interleave(NO_DIGITS, NO_DIGITS,
+                new int[][]{Wnaf.compute(u1, DEFAULT_WINDOW), Wnaf.compute(u2, DEFAULT_WINDOW)},
+                new JacobianPoint[][]{table1, table2});
+    }
+
+    private static final int[] NO_DIGITS = new int[0];
+
+    /**
+     * Evaluate a sum of wNAF-encoded multiples over one shared chain of doublings (Strauss).
+     *
+     * @param gDigits digits applied to the generator table
+     * @param gLambdaDigits digits applied to the generator table mapped by the endomorphism
+     * @param digits digits for each of the Jacobian tables
+     * @param tables odd multiples of the remaining points, one table per digit array
+     */
+    private static JacobianPoint interleave(int[] gDigits, int[] gLambdaDigits, int[][] digits, JacobianPoint[][] tables) {
+        GeneratorTable g = gDigits.length + gLambdaDigits.length > 0 ? Curve.secp256k1.generatorTable() : null;
+        int length = java.lang.Math.max(gDigits.length, gLambdaDigits.length);
+        for (int[] d : digits) {
+            length = java.lang.Math.max(length, d.length);
+        }
+        JacobianPoint r = new JacobianPoint();
+        JacobianPoint negated = new JacobianPoint();
+        FieldElement scratch = new FieldElement();
+        for (int i = length - 1; i >= 0; i--) {
+            if (!r.infinity) {
+                r.doublePoint(r);
+            }
+            if (i < gDigits.length) {
+                g.addOddMultiple(r, gDigits[i], false, scratch);
+            }
+            if (i < gLambdaDigits.length) {
+                g.addOddMultiple(r, gLambdaDigits[i], true, scratch);
+            }
+            for (int t = 0; t < digits.length; t++) {
+                if (i < digits[t].length) {
+                    addOddMultiple(r, tables[t], digits[t][i], negated);
+                }
+            }
+        }
+        return r;
+    }
+
+    /**
+     * wNAF of a possibly negative scalar, -k being encoded as the negated digits of k
+     */
+    private static int[] signedWnaf(BigInteger k, int window) {
+        int[] digits = Wnaf.compute(k.abs(), window);
+        if (k.signum() < 0) {
+            for (int i = 0; i < digits.length; i++) {
+                digits[i] = -digits[i];
+            }
+        }
+        return digits;
+    }
+
+    /**
+     * r = r + digit * p where table holds the odd multiples of p; zero digits are ignored
+     */
+    private static void addOddMultiple(JacobianPoint r, JacobianPoint[] table, int digit, JacobianPoint negated) {
+        if (digit > 0) {
+            r.add(r, table[digit >> 1]);
+        } else if (digit < 0) {
+            r.add(r, negated.negate(table[-digit >> 1]));
+        }
+    }
+
+    private static BigInteger reduce(BigInteger n, BigInteger N) {
+        return n.signum() < 0 || n.compareTo(N) >= 0 ? n.mod(N) : n;
+    }
+
+    /**
+     * @return p, 3p, 5p, ... as many as a wNAF of the given width can address
+     */
+    static JacobianPoint[] oddMultiples(JacobianPoint p, int window) {
+        JacobianPoint[] table = new JacobianPoint[Wnaf.tableSize(window)];
+        JacobianPoint twice = new JacobianPoint().doublePoint(p);
+        table[0] = new JacobianPoint().set(p);
+        for (int i = 1; i < table.length; i++) {
+            table[i] = new JacobianPoint().add(table[i - 1], twice);
         }
-        return null;
+        return table;
     }
 }
@@ -0,0 +1,133 @@
+package com.iri.utils.crypto.ellipticcurve;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+/**
+ * Verifies large batches of signatures on several threads.
+ * <p>
+ * The batch is split into chunks of at most {@code chunkSize} items and every chunk goes through
+ * {@link Ecdsa#verifyBatch(List, MessageDigest)}, on pooled SHA-256 digests or a fresh instance of any
+ * other algorithm. On a {@link ForkJoinPool} the chunks are forked recursively so idle workers steal them;
+ * any other {@link Executor} gets one task per chunk. Results always come back in input order.
+ */
+public final class ParallelVerifier {
+
+    public static final int DEFAULT_CHUNK_SIZE = 64;
+    public static final String DEFAULT_ALGORITHM = "SHA-256";
+
+    private final Executor executor;
+    private final int chunkSize;
+    private final String algorithm;
+
+    /**
+     * Verifier on the common fork-join pool with the default chunk size and SHA-256
+     */
+    public ParallelVerifier() {
+        this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE, DEFAULT_ALGORITHM);
+    }
+
+    /**
+     * @param executor Executor running the chunks; a ForkJoinPool gets recursive work-stealing tasks
+     * @param chunkSize Largest number of signatures verified by one task
+     */
+    public ParallelVerifier(Executor executor, int chunkSize) {
+        this(executor, chunkSize, DEFAULT_ALGORITHM);
+    }
+
+    /**
+     * @param executor Executor running the chunks; a ForkJoinPool gets recursive work-stealing tasks
+     * @param chunkSize Largest number of signatures verified by one task
+     * @param algorithm Name of the message digest applied twice to every message
+     */
+    public ParallelVerifier(Executor executor, int chunkSize, String algorithm) {
+        if (executor == null) {
+            throw new IllegalArgumentException("executor must not be null");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException(String.format("chunk size must be positive, got %d", chunkSize));
+        }
+        newDigest(algorithm);
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * @param items Messages with their signatures and public keys
+     * @return For each item, whether its signature is valid, in input order
+     */
+    public boolean[] verify(List<SignedMessage> items) {
+        boolean[] results = new boolean[items.size()];
+        if (results.length <= chunkSize) {
+            verifyChunk(items, 0, results.length, results);
+        } else if (executor instanceof ForkJoinPool) {
+            ((ForkJoinPool) executor).invoke(new Chunk(items, 0, results.length, results));
+        } else {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int from = 0; from < results.length; from += chunkSize) {
+                final int start = from;
+                final int end = java.lang.Math.min(from + chunkSize, results.length);
+                futures.add(CompletableFuture.runAsync(() -> verifyChunk(items, start, end, results), executor));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        }
+        return results;
+    }
+
+    public boolean[] verify(SignedMessage... items) {
+        return verify(Arrays.asList(items));
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    private void verifyChunk(List<SignedMessage> items, int from, int to, boolean[] results) {
+        MessageDigest digest = DEFAULT_ALGORITHM.equals(algorithm) ? null : newDigest(algorithm);
+        boolean[] chunk = Ecdsa.verifyBatch(items.subList(from, to), digest);
+        System.arraycopy(chunk, 0, results, from, chunk.length);
+    }
+
+    private static MessageDigest newDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(String.format("Could not find %s message digest in provided java environment", algorithm));
+        }
+    }
+
+    private final class Chunk extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<SignedMessage> items;
+        private final int from;
+        private final int to;
+        private final boolean[] results;
+
+        Chunk(List<SignedMessage> items, int from, int to, boolean[] results) {
+            this.items = items;
+            this.from = from;
+            this.to = to;
+            this.results = results;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                verifyChunk(items, from, to, results);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Chunk(items, from, middle, results), new Chunk(items, middle, to, results));
+        }
+    }
+}
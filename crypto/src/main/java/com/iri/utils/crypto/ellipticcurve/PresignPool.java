@@ -0,0 +1,170 @@
+package com.iri.utils.crypto.ellipticcurve;
+import com.iri.utils.crypto.ellipticcurve.utils.RandomInteger;
+import java.math.BigInteger;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Pool of signing nonces prepared ahead of time.
+ * <p>
+ * The expensive part of a signature, k * G and the inverse of k, does not depend on the message. The pool
+ * keeps up to {@code depth} tuples (k^-1, r, recovery id) ready, computing them in batches on an executor that
+ * share their inversions, see {@link Math#batchInverse} and {@link Math#batchNormalize}. {@link Ecdsa#sign(String, PrivateKey, PresignPool)} then only needs a
+ * few multiplications modulo N. Every tuple is handed out exactly once; when the pool runs dry the nonce is
+ * computed inline instead of waiting, and a refill is scheduled whenever it drops to half its depth.
+ */
+public final class PresignPool {
+
+    public static final int DEFAULT_DEPTH = 256;
+    static final int BATCH_SIZE = 32;
+
+    private final Curve curve;
+    private final int depth;
+    private final Executor executor;
+    private final ConcurrentLinkedQueue<Presignature> nonces = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicBoolean refilling = new AtomicBoolean();
+
+    /**
+     * Pool of {@link #DEFAULT_DEPTH} nonces refilled on the common fork-join pool
+     */
+    public PresignPool(Curve curve) {
+        this(curve, DEFAULT_DEPTH, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param curve Curve of the keys that will sign with this pool
+     * @param depth Number of nonces kept ready
+     * @param executor Executor running the background refills
+     */
+    public PresignPool(Curve curve, int depth, Executor executor) {
+        if (depth < 1) {
+            throw new IllegalArgumentException(String.format("depth must be positive, got %d", depth));
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("executor must not be null");
+        }
+        this.curve = curve;
+        this.depth = depth;
+        this.executor = executor;
+        scheduleRefill();
+    }
+
+    public Curve getCurve() {
+        return curve;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return Number of nonces ready right now
+     */
+    public int available() {
+        return size.get();
+    }
+
+    /**
+     * Fill the pool up to its depth on the calling thread, e.g. before a burst of signatures is expected
+     */
+    public void fill() {
+        int missing;
+        while ((missing = depth - size.get()) > 0) {
+            for (Presignature nonce : presign(curve, java.lang.Math.min(missing, BATCH_SIZE))) {
+                nonces.offer(nonce);
+                size.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * @return A nonce nobody else will get, computed inline if the pool is empty
+     */
+    Presignature take() {
+        Presignature nonce = nonces.poll();
+        if (nonce != null) {
+            size.decrementAndGet();
+        }
+        if (size.get() <= depth / 2) {
+            scheduleRefill();
+        }
+        return nonce != null ? nonce : presign(curve, 1)[0];
+    }
+
+    private void scheduleRefill() {
+        if (!refilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    fill();
+                } finally {
+                    refilling.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // a shut down executor only means the pool is no longer refilled; take() still works inline
+            refilling.set(false);
+        }
+    }
+
+    /**
+     * @param count Number of nonces to compute, sharing one modular inversion for the k and one for the points
+     * @return Fresh nonces for the curve
+     */
+    static Presignature[] presign(Curve curve, int count) {
+        BigInteger[] k = new BigInteger[count];
+        for (int i = 0; i < count; i++) {
+            k[i] = RandomInteger.between(BigInteger.ONE, curve.N);
+        }
+        return presign(curve, k);
+    }
+
+    /**
+     * @param k Nonce in [1, N - 1] chosen by the caller, e.g. with {@link Rfc6979}
+     */
+    static Presignature presign(Curve curve, BigInteger k) {
+        return presign(curve, new BigInteger[]{k})[0];
+    }
+
+    private static Presignature[] presign(Curve curve, BigInteger[] k) {
+        Point g = Math.toJacobian(curve.G);
+        Point[] jacobian = new Point[k.length];
+        for (int i = 0; i < k.length; i++) {
+            jacobian[i] = Math.jacobianMultiply(g, k[i], curve.N, curve.A, curve.P);
+        }
+        Point[] points = Math.batchNormalize(jacobian, curve.P);
+        // the nonces are secret, so on secp256k1 they are inverted in constant time
+        BigInteger[] kInverse = Scalar.N.equals(curve.N) ? Scalar.batchInvert(k) : Math.batchInverse(k, curve.N);
+        Presignature[] nonces = new Presignature[k.length];
+        for (int i = 0; i < k.length; i++) {
+            Point point = points[i];
+            int recoveryId = (point.y.testBit(0) ? 1 : 0) | (point.x.compareTo(curve.N) >= 0 ? 2 : 0);
+            nonces[i] = new Presignature(kInverse[i], point.x.mod(curve.N), recoveryId);
+        }
+        return nonces;
+    }
+
+    /**
+     * Message independent part of a signature: k^-1 mod N and r = x(k * G) mod N
+     */
+    static final class Presignature {
+
+        final BigInteger kInverse;
+        final BigInteger r;
+        final int recoveryId;
+
+        Presignature(BigInteger kInverse, BigInteger r, int recoveryId) {
+            this.kInverse = kInverse;
+            this.r = r;
+            this.recoveryId = recoveryId;
+        }
+    }
+}
@@ -1,15 +1,16 @@
 package com.iri.utils.crypto.ellipticcurve;
 
-import com.iri.utils.crypto.ellipticcurve.utils.BinaryAscii;
+import com.iri.utils.crypto.ellipticcurve.utils.BigEndian;
 import com.iri.utils.crypto.ellipticcurve.utils.ByteString;
 import com.iri.utils.crypto.ellipticcurve.utils.Der;
+import com.iri.utils.crypto.ellipticcurve.utils.DerReader;
+import com.iri.utils.crypto.ellipticcurve.utils.Hashes;
 import com.iri.utils.crypto.ellipticcurve.utils.RandomInteger;
 import io.ipfs.multibase.Base58;
 import org.junit.Assert;
 
 import java.math.BigInteger;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 
@@ -36,7 +37,7 @@ public class PrivateKey {
     }
 
     public ByteString toByteString() {
-        return BinaryAscii.stringFromNumber(this.secret, this.curve.length());
+        return new ByteString(BigEndian.toBytes(this.secret, this.curve.length()));
     }
 
     public ByteString toDer() {
@@ -63,58 +64,36 @@ public class PrivateKey {
     }
 
     public static PrivateKey fromDer(ByteString string) {
-        ByteString[] str = Der.removeSequence(string);
-        ByteString s = str[0];
-        ByteString empty = str[1];
-        if (!empty.isEmpty()) {
-            throw new RuntimeException(String.format("trailing junk after DER privkey: %s", BinaryAscii.hexFromBinary(empty)));
-        }
+        return fromDer(string.asByteBuffer());
+    }
 
-        Object[] o = Der.removeInteger(s);
-        long one = Long.valueOf(o[0].toString());
-        s = (ByteString) o[1];
-        if (one != 1) {
-            throw new RuntimeException(String.format("expected '1' at start of DER privkey, got %d", one));
-        }
+    /**
+     * @param der ECPrivateKey between the buffer's position and limit; the buffer is not changed
+     */
+    public static PrivateKey fromDer(ByteBuffer der) {
+        DerReader reader = new DerReader(der);
+        DerReader s = reader.readSequence();
+        reader.expectEnd("DER privkey");
 
-        str = Der.removeOctetString(s);
-        ByteString privkeyStr = str[0];
-        s = str[1];
-        Object[] t = Der.removeConstructed(s);
-        long tag = Long.valueOf(t[0].toString());
-        ByteString curveOidStr = (ByteString) t[1];
-        s = (ByteString) t[2];
-        if (tag != 0) {
-            throw new RuntimeException(String.format("expected tag 0 in DER privkey, got %d", tag));
+        BigInteger one = s.readInteger();
+        if (!BigInteger.ONE.equals(one)) {
+            throw new RuntimeException(String.format("expected '1' at start of DER privkey, got %d", one));
         }
 
-        o = Der.removeObject(curveOidStr);
-        long[] oidCurve = (long[]) o[0];
-        empty = (ByteString) o[1];
-        if (!"".equals(empty.toString())) {
-            throw new RuntimeException(String.format("trailing junk after DER privkey curve_oid: %s", BinaryAscii.hexFromBinary(empty)));
-        }
+        ByteBuffer privkeyStr = s.readOctetString();
+        DerReader curveOidStr = s.readConstructed(0);
+        long[] oidCurve = curveOidStr.readOid();
+        curveOidStr.expectEnd("DER privkey curve_oid");
         Curve curve = (Curve) Curve.curvesByOid.get(Arrays.hashCode(oidCurve));
         if (curve == null) {
             throw new RuntimeException(String.format("Unknown curve with oid %s. I only know about these: %s", Arrays.toString(oidCurve), Arrays.toString(Curve.supportedCurves.toArray())));
         }
 
-        if (privkeyStr.length() < curve.length()) {
-            int l = curve.length() - privkeyStr.length();
-            byte[] bytes = new byte[l + privkeyStr.length()];
-            for (int i = 0; i < curve.length() - privkeyStr.length(); i++) {
-                bytes[i] = 0;
-            }
-            byte[] privateKey = privkeyStr.getBytes();
-            System.arraycopy(privateKey, 0, bytes, l, bytes.length - l);
-            privkeyStr = new ByteString(bytes);
-        }
-
-        return PrivateKey.fromString(privkeyStr, curve);
+        return new PrivateKey(curve, BigEndian.toBigInteger(privkeyStr, 0, privkeyStr.remaining()));
     }
 
     public static PrivateKey fromString(ByteString string, Curve curve) {
-        return new PrivateKey(curve, BinaryAscii.numberFromString(string.getBytes()));
+        return new PrivateKey(curve, BigEndian.toBigInteger(string.asByteBuffer(), 0, string.length()));
     }
 
     public static PrivateKey fromString(String string) {
@@ -137,49 +116,31 @@ public class PrivateKey {
         else{
             throw new RuntimeException("error: private must start with 5 if uncompressed or L/K for compressed, but actural:" + base58PrivateKey);
         }
+        // 0x80, the 32-byte secret, 0x01 when compressed, then the checksum
         byte[] encodedPrivKey = Base58.decode(base58PrivateKey);
-        String hexPrivKey = BinaryAscii.hexFromBinary(encodedPrivKey);
-
-        checkLength(hexPrivKey, compressed);
-
-        String secretString;
-        if (compressed){
-            secretString = hexPrivKey.substring(2, hexPrivKey.length() - 10);
-        }
-        else{
-            secretString = hexPrivKey.substring(2,hexPrivKey.length() - 8);
-        }
-
-        BigInteger secret = new BigInteger(secretString, 16);
-        try {
-            checkSum(encodedPrivKey, hexPrivKey);
-        } catch (NoSuchAlgorithmException e) {
-            e.printStackTrace();
-        }
+        checkLength(encodedPrivKey, compressed);
+        BigInteger secret = BigEndian.toBigInteger(encodedPrivKey, 1, 32);
+        checkSum(encodedPrivKey);
 
         return new PrivateKey(Curve.secp256k1, secret);
     }
 
-    private static void checkSum(byte[] encodedPrivKey, String hexPrivKey) throws NoSuchAlgorithmException {
-        byte[] checkPrivKey = new byte[encodedPrivKey.length - 4];
-        System.arraycopy(encodedPrivKey, 0, checkPrivKey, 0, encodedPrivKey.length - 4);
-        byte[] afterHash = doubleHash(checkPrivKey, MessageDigest.getInstance("SHA-256"));
-        byte[] checkSum = new byte[4];
-        System.arraycopy(afterHash, 0, checkSum, 0, 4);
-        String hexCheckSum = BinaryAscii.hexFromBinary(checkSum);
-
-        Assert.assertTrue("error: checksum error.", hexCheckSum.equals(hexPrivKey.substring(hexPrivKey.length() - 8)));
+    private static void checkSum(byte[] encodedPrivKey) {
+        int len = encodedPrivKey.length - 4;
+        byte[] afterHash = new byte[Hashes.SHA256_LEN];
+        Hashes.doubleSha256(encodedPrivKey, 0, len, afterHash, 0);
+        boolean valid = true;
+        for (int i = 0; i < 4; i++) {
+            valid &= afterHash[i] == encodedPrivKey[len + i];
+        }
+        Assert.assertTrue("error: checksum error.", valid);
     }
 
-    private static void checkLength(String hexPrivKey, boolean compressed) {
+    private static void checkLength(byte[] encodedPrivKey, boolean compressed) {
         if (compressed){
-            Assert.assertTrue("error: length of uncompressed hex private key is not 76",hexPrivKey.length() == 76);
+            Assert.assertTrue("error: length of uncompressed hex private key is not 76",encodedPrivKey.length == 38);
         }else{
-            Assert.assertTrue("error: length of uncompressed hex private key is not 74",hexPrivKey.length() == 74);
+            Assert.assertTrue("error: length of uncompressed hex private key is not 74",encodedPrivKey.length == 37);
         }
     }
-
-    private static byte[] doubleHash(byte[] h, MessageDigest hashFunc){
-        return hashFunc.digest(hashFunc.digest(h));
-    }
 }
@@ -1,7 +1,9 @@
 package com.iri.utils.crypto.ellipticcurve;
 import com.iri.utils.crypto.ellipticcurve.utils.ByteString;
 import com.iri.utils.crypto.ellipticcurve.utils.Der;
-import com.iri.utils.crypto.ellipticcurve.utils.BinaryAscii;
+import com.iri.utils.crypto.ellipticcurve.utils.DerReader;
+import com.iri.utils.crypto.ellipticcurve.utils.BigEndian;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import static com.iri.utils.crypto.ellipticcurve.Curve.secp256k1;
 import static com.iri.utils.crypto.ellipticcurve.Curve.supportedCurves;
@@ -22,13 +24,16 @@ public class PublicKey {
     }
 
     public ByteString toByteString(boolean encoded) {
-        ByteString xStr = BinaryAscii.stringFromNumber(point.x, curve.length());
-        ByteString yStr = BinaryAscii.stringFromNumber(point.y, curve.length());
-        xStr.insert(yStr.getBytes());
+        // both coordinates always take curve.length() bytes, also when their leading bytes are zero
+        int len = curve.length();
+        int off = encoded ? 2 : 0;
+        byte[] string = new byte[off + 2 * len];
         if(encoded) {
-            xStr.insert(0, new byte[]{0, 4} );
+            string[1] = 4;
         }
-        return xStr;
+        BigEndian.write(point.x, string, off, len);
+        BigEndian.write(point.y, string, off + len, len);
+        return new ByteString(string);
     }
 
     public ByteString toDer() {
@@ -46,45 +51,46 @@ public class PublicKey {
     }
 
     public static PublicKey fromDer(ByteString string) {
-        ByteString[] str = Der.removeSequence(string);
-        ByteString s1 = str[0];
-        ByteString empty = str[1];
-        if (!empty.isEmpty()) {
-            throw new RuntimeException (String.format("trailing junk after DER pubkey: %s", BinaryAscii.hexFromBinary(empty)));
-        }
-        str = Der.removeSequence(s1);
-        ByteString s2 = str[0];
-        ByteString pointStrBitstring = str[1];
-        Object[] o = Der.removeObject(s2);
-        ByteString rest = (ByteString) o[1];
-        o = Der.removeObject(rest);
-        long[] oidCurve = (long[]) o[0];
-        empty = (ByteString) o[1];
-        if (!empty.isEmpty()) {
-            throw new RuntimeException (String.format("trailing junk after DER pubkey objects: %s", BinaryAscii.hexFromBinary(empty)));
-        }
+        return fromDer(string.asByteBuffer());
+    }
+
+    /**
+     * @param der SubjectPublicKeyInfo between the buffer's position and limit; the buffer is not changed
+     */
+    public static PublicKey fromDer(ByteBuffer der) {
+        DerReader reader = new DerReader(der);
+        DerReader s1 = reader.readSequence();
+        reader.expectEnd("DER pubkey");
+
+        DerReader s2 = s1.readSequence();
+        s2.readOid();
+        long[] oidCurve = s2.readOid();
+        s2.expectEnd("DER pubkey objects");
 
         Curve curve = (Curve) Curve.curvesByOid.get(Arrays.hashCode(oidCurve));
         if (curve == null) {
             throw new RuntimeException(String.format("Unknown curve with oid %s. I only know about these: %s", Arrays.toString(oidCurve), Arrays.toString(supportedCurves.toArray())));
         }
 
-        str = Der.removeBitString(pointStrBitstring);
-        ByteString pointStr = str[0];
-        empty = str[1];
-        if (!empty.isEmpty()) {
-            throw new RuntimeException (String.format("trailing junk after pubkey pointstring: %s", BinaryAscii.hexFromBinary(empty)));
+        ByteBuffer pointStr = s1.readBitString();
+        s1.expectEnd("pubkey pointstring");
+        if (!pointStr.hasRemaining()) {
+            throw new RuntimeException("empty DER pubkey pointstring");
         }
-        return PublicKey.fromString(pointStr.substring(2), curve);
+        // skip the uncompressed point marker 0x04
+        byte[] point = new byte[pointStr.remaining() - 1];
+        pointStr.position(1);
+        pointStr.get(point);
+        return PublicKey.fromString(new ByteString(point), curve);
     }
 
     public static PublicKey fromString(ByteString string, Curve curve, boolean validatePoint) {
         int baselen = curve.length();
 
-        ByteString xs = string.substring(0, baselen);
-        ByteString ys = string.substring(baselen);
+        ByteBuffer bytes = string.asByteBuffer();
+        int xlen = java.lang.Math.min(baselen, string.length());
 
-        Point p = new Point(BinaryAscii.numberFromString(xs.getBytes()), BinaryAscii.numberFromString(ys.getBytes()));
+        Point p = new Point(BigEndian.toBigInteger(bytes, 0, xlen), BigEndian.toBigInteger(bytes, xlen, string.length() - xlen));
 
         if (validatePoint && !curve.contains(p)) {
             throw new  RuntimeException(String.format("point (%s,%s) is not valid", p.x, p.y));
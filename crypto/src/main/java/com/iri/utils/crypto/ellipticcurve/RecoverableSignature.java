@@ -0,0 +1,23 @@
+package com.iri.utils.crypto.ellipticcurve;
+import java.math.BigInteger;
+
+
+/**
+ * Signature that also records which of the candidate nonce points R it was made with, so the public key
+ * can be recovered from the signature and the message alone.
+ * <p>
+ * Bit 0 of the recovery id is the parity of the y coordinate of R and bit 1 is set when the x coordinate
+ * of R was at least N, i.e. r = x - N.
+ */
+public class RecoverableSignature extends Signature {
+
+    public int recoveryId;
+
+    public RecoverableSignature(BigInteger r, BigInteger s, int recoveryId) {
+        super(r, s);
+        if (recoveryId < 0 || recoveryId > 3) {
+            throw new IllegalArgumentException(String.format("recovery id must be between 0 and 3, got %d", recoveryId));
+        }
+        this.recoveryId = recoveryId;
+    }
+}
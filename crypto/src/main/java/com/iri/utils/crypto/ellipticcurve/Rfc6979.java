@@ -0,0 +1,133 @@
+package com.iri.utils.crypto.ellipticcurve;
+import com.iri.utils.crypto.ellipticcurve.utils.BigEndian;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigInteger;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+
+/**
+ * Deterministic nonces as in RFC 6979, section 3.2, with HMAC-SHA256 as the DRBG.
+ * <p>
+ * The nonce is a function of the private key and the message hash only, so the same input always gives
+ * the same signature and no entropy is consumed. The HMAC engines are pooled like the digests of
+ * {@link com.iri.utils.crypto.ellipticcurve.utils.Hashes}, and one derivation works on two fixed buffers
+ * for K and V plus one for the HMAC inputs.
+ */
+final class Rfc6979 {
+
+    private static final String HMAC = "HmacSHA256";
+    private static final int HMAC_LENGTH = 32;
+    private static final ConcurrentLinkedQueue<Mac> MACS = new ConcurrentLinkedQueue<>();
+
+    private Rfc6979() {
+        throw new UnsupportedOperationException("Rfc6979 is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * @param secret Private key x in [1, N - 1]
+     * @param hash Message hash h1 the signature is computed over
+     * @param N Order of the elliptic curve
+     * @return The nonce k in [1, N - 1]
+     */
+    static BigInteger nonce(BigInteger secret, byte[] hash, BigInteger N) {
+        int qlen = N.bitLength();
+        int rlen = (qlen + 7) / 8;
+        byte[] x = int2octets(secret, rlen);
+        byte[] h = int2octets(bits2int(hash, qlen).mod(N), rlen);
+
+        byte[] v = new byte[HMAC_LENGTH];
+        byte[] k = new byte[HMAC_LENGTH];
+        Arrays.fill(v, (byte) 0x01);
+        // V || 0x00 or 0x01 || int2octets(x) || bits2octets(h1)
+        byte[] seed = new byte[HMAC_LENGTH + 1 + 2 * rlen];
+        System.arraycopy(x, 0, seed, HMAC_LENGTH + 1, rlen);
+        System.arraycopy(h, 0, seed, HMAC_LENGTH + 1 + rlen, rlen);
+        Arrays.fill(x, (byte) 0);
+
+        byte[] t = new byte[rlen];
+        Mac mac = borrow();
+        try {
+            rekey(mac, k);
+            for (byte separator = 0x00; separator <= 0x01; separator++) {
+                System.arraycopy(v, 0, seed, 0, HMAC_LENGTH);
+                seed[HMAC_LENGTH] = separator;
+                hmac(mac, seed, seed.length, k);
+                rekey(mac, k);
+                hmac(mac, v, HMAC_LENGTH, v);
+            }
+            Arrays.fill(seed, (byte) 0);
+
+            while (true) {
+                // K is unchanged here, so the key set up by the last rekey is reused
+                for (int filled = 0; filled < rlen; filled += HMAC_LENGTH) {
+                    hmac(mac, v, HMAC_LENGTH, v);
+                    System.arraycopy(v, 0, t, filled, java.lang.Math.min(HMAC_LENGTH, rlen - filled));
+                }
+                BigInteger candidate = bits2int(t, qlen);
+                if (candidate.signum() > 0 && candidate.compareTo(N) < 0) {
+                    return candidate;
+                }
+                // K = HMAC_K(V || 0x00), V = HMAC_K(V)
+                byte[] retry = Arrays.copyOf(v, HMAC_LENGTH + 1);
+                hmac(mac, retry, retry.length, k);
+                Arrays.fill(retry, (byte) 0);
+                rekey(mac, k);
+                hmac(mac, v, HMAC_LENGTH, v);
+            }
+        } finally {
+            Arrays.fill(k, (byte) 0);
+            Arrays.fill(v, (byte) 0);
+            Arrays.fill(t, (byte) 0);
+            MACS.offer(mac);
+        }
+    }
+
+    /**
+     * Key the MAC with K; doFinal keeps the key, so this is only needed when K changes
+     */
+    private static void rekey(Mac mac, byte[] key) {
+        try {
+            mac.init(new SecretKeySpec(key, HMAC));
+        } catch (InvalidKeyException e) {
+            throw new IllegalStateException("HMAC-SHA256 rejected its key", e);
+        }
+    }
+
+    /**
+     * out = HMAC_K(data[0..length)) under the current key; out may be data
+     */
+    private static void hmac(Mac mac, byte[] data, int length, byte[] out) {
+        try {
+            mac.update(data, 0, length);
+            mac.doFinal(out, 0);
+        } catch (javax.crypto.ShortBufferException e) {
+            throw new IllegalStateException("HMAC-SHA256 rejected its input", e);
+        }
+    }
+
+    private static BigInteger bits2int(byte[] bytes, int qlen) {
+        BigInteger value = new BigInteger(1, bytes);
+        int excess = bytes.length * 8 - qlen;
+        return excess > 0 ? value.shiftRight(excess) : value;
+    }
+
+    private static byte[] int2octets(BigInteger value, int rlen) {
+        return BigEndian.toBytes(value, rlen);
+    }
+
+    private static Mac borrow() {
+        Mac mac = MACS.poll();
+        if (mac != null) {
+            return mac;
+        }
+        try {
+            return Mac.getInstance(HMAC);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not find HMAC-SHA256 in provided java environment");
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.iri.utils.crypto.ellipticcurve;
+import com.iri.utils.crypto.ellipticcurve.utils.BigEndian;
+import java.math.BigInteger;
+
+
+/**
+ * Mutable integer modulo the secp256k1 order N, for secret scalars such as nonces and private keys.
+ * <p>
+ * The value is kept fully reduced in eight 32-bit limbs, least significant first. Products go through
+ * Montgomery multiplication and every operation runs the same instructions whatever the value, including
+ * {@link #invert}, which raises to the power N - 2 with a fixed window over the public exponent. All
+ * operations write their result into {@code this} and accept {@code this} as one of their arguments.
+ */
+final class Scalar {
+
+    static final BigInteger N = Curve.secp256k1.N;
+
+    private static final long M32 = 0xFFFFFFFFL;
+    private static final int[] N_LIMBS = limbs(N);
+    // -N^-1 mod 2^32 and R^2 mod N for R = 2^256
+    private static final long N_PRIME = BigInteger.ONE.shiftLeft(32).subtract(N.modInverse(BigInteger.ONE.shiftLeft(32))).longValue();
+    private static final int[] R2 = limbs(BigInteger.ONE.shiftLeft(512).mod(N));
+    private static final int[] ONE = limbs(BigInteger.ONE);
+    private static final int[] N_MINUS_2 = limbs(N.subtract(BigInteger.valueOf(2)));
+
+    private final int[] v = new int[8];
+
+    static Scalar fromBigInteger(BigInteger value) {
+        return new Scalar().setBigInteger(value);
+    }
+
+    Scalar set(Scalar other) {
+        System.arraycopy(other.v, 0, v, 0, 8);
+        return this;
+    }
+
+    /**
+     * @param value any integer, reduced modulo N
+     */
+    Scalar setBigInteger(BigInteger value) {
+        if (value.signum() < 0 || value.compareTo(N) >= 0) {
+            value = value.mod(N);
+        }
+        return setBytes(BigEndian.toBytes(value, 32), 0);
+    }
+
+    /**
+     * Load the 32-byte big-endian number in[off..off + 32), reduced modulo N
+     */
+    Scalar setBytes(byte[] in, int off) {
+        for (int i = 0; i < 8; i++) {
+            int k = off + 4 * (7 - i);
+            v[i] = in[k] << 24 | (in[k + 1] & 0xFF) << 16 | (in[k + 2] & 0xFF) << 8 | (in[k + 3] & 0xFF);
+        }
+        // 2^256 < 2N, so one conditional subtraction reduces any 32-byte value
+        subtractNIfNotBelow(v, 0, v);
+        return this;
+    }
+
+    /**
+     * Store the value as a 32-byte big-endian number in out[off..off + 32)
+     */
+    void getBytes(byte[] out, int off) {
+        for (int i = 0; i < 8; i++) {
+            int limb = v[7 - i];
+            out[off + 4 * i] = (byte) (limb >>> 24);
+            out[off + 4 * i + 1] = (byte) (limb >>> 16);
+            out[off + 4 * i + 2] = (byte) (limb >>> 8);
+            out[off + 4 * i + 3] = (byte) limb;
+        }
+    }
+
+    BigInteger toBigInteger() {
+        byte[] bytes = new byte[32];
+        getBytes(bytes, 0);
+        return new BigInteger(1, bytes);
+    }
+
+    boolean isZero() {
+        int acc = 0;
+        for (int i = 0; i < 8; i++) {
+            acc |= v[i];
+        }
+        return acc == 0;
+    }
+
+    /**
+     * this = a + b mod N
+     */
+    Scalar add(Scalar a, Scalar b) {
+        long carry = 0;
+        int[] sum = new int[8];
+        for (int i = 0; i < 8; i++) {
+            carry += (a.v[i] & M32) + (b.v[i] & M32);
+            sum[i] = (int) carry;
+            carry >>>= 32;
+        }
+        subtractNIfNotBelow(sum, carry, v);
+        return this;
+    }
+
+    /**
+     * this = a * b mod N
+     */
+    Scalar mul(Scalar a, Scalar b) {
+        int[] t = new int[8];
+        montgomery(a.v, b.v, t);
+        montgomery(t, R2, v);
+        return this;
+    }
+
+    /**
+     * this = a^-1 mod N by Fermat's little theorem, in constant time; the inverse of zero is zero
+     */
+    Scalar invert(Scalar a) {
+        // everything below works on Montgomery representations x * R mod N
+        int[][] table = new int[16][8];
+        montgomery(ONE, R2, table[0]);
+        montgomery(a.v, R2, table[1]);
+        for (int i = 2; i < 16; i++) {
+            montgomery(table[i - 1], table[1], table[i]);
+        }
+        int[] r = table[0].clone();
+        for (int i = 63; i >= 0; i--) {
+            for (int s = 0; s < 4; s++) {
+                montgomery(r, r, r);
+            }
+            // the window comes from the public exponent, so indexing the table leaks nothing about a
+            int window = (N_MINUS_2[i >>> 3] >>> ((i & 7) * 4)) & 0xF;
+            montgomery(r, table[window], r);
+        }
+        montgomery(r, ONE, v);
+        return this;
+    }
+
+    /**
+     * Invert many secret values with one constant-time inversion (Montgomery's trick)
+     *
+     * @param values values to invert, reduced modulo N, none of them zero
+     * @return inverses in the same order as the values
+     */
+    static BigInteger[] batchInvert(BigInteger[] values) {
+        BigInteger[] inverses = new BigInteger[values.length];
+        if (values.length == 0) {
+            return inverses;
+        }
+        Scalar[] x = new Scalar[values.length];
+        Scalar[] prefix = new Scalar[values.length];
+        Scalar acc = fromBigInteger(BigInteger.ONE);
+        for (int i = 0; i < values.length; i++) {
+            x[i] = fromBigInteger(values[i]);
+            acc.mul(acc, x[i]);
+            prefix[i] = new Scalar().set(acc);
+        }
+        acc.invert(acc);
+        Scalar inverse = new Scalar();
+        for (int i = values.length - 1; i > 0; i--) {
+            inverse.mul(acc, prefix[i - 1]);
+            acc.mul(acc, x[i]);
+            inverses[i] = inverse.toBigInteger();
+        }
+        inverses[0] = acc.toBigInteger();
+        return inverses;
+    }
+
+    /*
+     * out = a * b / 2^256 mod N (CIOS Montgomery multiplication); out may alias a or b
+     */
+    private static void montgomery(int[] a, int[] b, int[] out) {
+        long[] t = new long[10];
+        for (int i = 0; i < 8; i++) {
+            long bi = b[i] & M32;
+            long carry = 0;
+            for (int j = 0; j < 8; j++) {
+                // at most (2^32 - 1)^2 + 2 * (2^32 - 1) = 2^64 - 1, which still fits unsigned
+                long x = t[j] + (a[j] & M32) * bi + carry;
+                t[j] = x & M32;
+                carry = x >>> 32;
+            }
+            long x = t[8] + carry;
+            t[8] = x & M32;
+            t[9] = x >>> 32;
+
+            long m = (t[0] * N_PRIME) & M32;
+            carry = (t[0] + m * (N_LIMBS[0] & M32)) >>> 32;
+            for (int j = 1; j < 8; j++) {
+                x = t[j] + m * (N_LIMBS[j] & M32) + carry;
+                t[j - 1] = x & M32;
+                carry = x >>> 32;
+            }
+            x = t[8] + carry;
+            t[7] = x & M32;
+            t[8] = t[9] + (x >>> 32);
+        }
+        int[] result = new int[8];
+        for (int i = 0; i < 8; i++) {
+            result[i] = (int) t[i];
+        }
+        subtractNIfNotBelow(result, t[8], out);
+    }
+
+    /*
+     * out = value - N if the 257-bit value (high, value) is at least N, else value; without branching on it
+     */
+    private static void subtractNIfNotBelow(int[] value, long high, int[] out) {
+        int[] diff = new int[8];
+        long borrow = 0;
+        for (int i = 0; i < 8; i++) {
+            long d = (value[i] & M32) - (N_LIMBS[i] & M32) - borrow;
+            diff[i] = (int) d;
+            borrow = (d >>> 63);
+        }
+        // keep the difference unless it borrowed past the top bit
+        int keepValue = (int) -(borrow & ~high & 1);
+        for (int i = 0; i < 8; i++) {
+            out[i] = (value[i] & keepValue) | (diff[i] & ~keepValue);
+        }
+    }
+
+    private static int[] limbs(BigInteger value) {
+        int[] limbs = new int[8];
+        for (int i = 0; i < 8; i++) {
+            limbs[i] = value.shiftRight(32 * i).intValue();
+        }
+        return limbs;
+    }
+}
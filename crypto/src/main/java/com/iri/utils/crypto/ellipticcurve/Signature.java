@@ -1,10 +1,11 @@
 package com.iri.utils.crypto.ellipticcurve;
 import com.iri.utils.crypto.ellipticcurve.utils.Base64;
-import com.iri.utils.crypto.ellipticcurve.utils.BinaryAscii;
 import com.iri.utils.crypto.ellipticcurve.utils.ByteString;
-import com.iri.utils.crypto.ellipticcurve.utils.Der;
+import com.iri.utils.crypto.ellipticcurve.utils.DerReader;
+import com.iri.utils.crypto.ellipticcurve.utils.DerWriter;
 import java.io.IOException;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 
 
 public class Signature {
@@ -18,7 +19,36 @@ public class Signature {
     }
 
     public ByteString toDer() {
-        return Der.encodeSequence(Der.encodeInteger(r), Der.encodeInteger(s));
+        byte[] der = new byte[derLength()];
+        toDer(der, 0);
+        return new ByteString(der);
+    }
+
+    /**
+     * @return Size of the DER encoding, 8 to 72 bytes on secp256k1
+     */
+    public int derLength() {
+        return DerWriter.elementSize(DerWriter.integerSize(r) + DerWriter.integerSize(s));
+    }
+
+    /**
+     * Write the DER encoding to out starting at off, without allocating
+     *
+     * @return Number of bytes written, {@link #derLength()}
+     */
+    public int toDer(byte[] out, int off) {
+        new DerWriter(out, off).writeSequence(DerWriter.integerSize(r) + DerWriter.integerSize(s)).writeInteger(r).writeInteger(s);
+        return derLength();
+    }
+
+    /**
+     * Write the DER encoding at the buffer's position, advancing it
+     *
+     * @return Number of bytes written, {@link #derLength()}
+     */
+    public int toDer(ByteBuffer out) {
+        new DerWriter(out).writeSequence(DerWriter.integerSize(r) + DerWriter.integerSize(s)).writeInteger(r).writeInteger(s);
+        return derLength();
     }
 
     public String toBase64() {
@@ -26,21 +56,19 @@ public class Signature {
     }
 
     public static Signature fromDer(ByteString string) {
-        ByteString[] str = Der.removeSequence(string);
-        ByteString rs = str[0];
-        ByteString empty = str[1];
-        if (!empty.isEmpty()) {
-            throw new RuntimeException(String.format("trailing junk after DER sig: %s", BinaryAscii.hexFromBinary(empty)));
-        }
-        Object[] o = Der.removeInteger(rs);
-        BigInteger r = new BigInteger(o[0].toString());
-        ByteString rest = (ByteString) o[1];
-        o = Der.removeInteger(rest);
-        BigInteger s = new BigInteger(o[0].toString());
-        empty = (ByteString) o[1];
-        if (!empty.isEmpty()) {
-            throw new RuntimeException(String.format("trailing junk after DER numbers: %s", BinaryAscii.hexFromBinary(empty)));
-        }
+        return fromDer(string.asByteBuffer());
+    }
+
+    /**
+     * @param der Signature between the buffer's position and limit; the buffer is not changed
+     */
+    public static Signature fromDer(ByteBuffer der) {
+        DerReader reader = new DerReader(der);
+        DerReader rs = reader.readSequence();
+        reader.expectEnd("DER sig");
+        BigInteger r = rs.readInteger();
+        BigInteger s = rs.readInteger();
+        rs.expectEnd("DER numbers");
         return new Signature(r, s);
     }
 
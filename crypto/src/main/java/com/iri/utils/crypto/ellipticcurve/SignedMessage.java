@@ -0,0 +1,19 @@
+package com.iri.utils.crypto.ellipticcurve;
+
+
+/**
+ * A message together with its signature and the public key it should verify against, as taken by
+ * {@link Ecdsa#verifyBatch(java.util.List)}.
+ */
+public class SignedMessage {
+
+    public String message;
+    public Signature signature;
+    public PublicKey publicKey;
+
+    public SignedMessage(String message, Signature signature, PublicKey publicKey) {
+        this.message = message;
+        this.signature = signature;
+        this.publicKey = publicKey;
+    }
+}
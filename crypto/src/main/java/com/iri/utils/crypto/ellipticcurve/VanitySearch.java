@@ -0,0 +1,185 @@
+package com.iri.utils.crypto.ellipticcurve;
+import com.iri.utils.crypto.ellipticcurve.utils.Entropy;
+import java.math.BigInteger;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+
+/**
+ * Multi-threaded search for a key whose compressed address, as made by
+ * {@link EcdsaUtils#generateAddress(PrivateKey)}, starts with a given prefix.
+ * <p>
+ * Every worker starts from its own random key k and walks k, k + 1, k + 2, ... by adding G to the point,
+ * which costs one mixed addition per candidate instead of a multiplication. A batch of candidates is made
+ * affine with one inversion, then each one is encoded into a reused buffer and turned into an address by
+ * {@link Addresses#fromSec1(byte[], int, int)}. Only the matching key ever leaves the search, so its neighbours on the walk are never exposed.
+ */
+public final class VanitySearch {
+
+    private static final String ALPHABET = "123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz";
+
+    public static final int DEFAULT_BATCH_SIZE = 512;
+    public static final long DEFAULT_PROGRESS_INTERVAL_MILLIS = 1000;
+
+    /**
+     * Receives progress reports on the thread that called {@link #search()}
+     */
+    public interface ProgressListener {
+        /**
+         * @param attempts Number of addresses checked so far
+         * @param keysPerSecond Average rate since the search started
+         */
+        void progress(long attempts, double keysPerSecond);
+    }
+
+    private final String prefix;
+    private final int threads;
+    private final int batchSize;
+    private final ProgressListener listener;
+    private final long progressIntervalMillis;
+
+    private final AtomicLong attempts = new AtomicLong();
+    private final AtomicReference<BigInteger> found = new AtomicReference<>();
+    private volatile boolean cancelled;
+    private volatile long startNanos;
+
+    /**
+     * Search on all available processors without progress reports
+     *
+     * @param prefix Wanted beginning of the address, starting with '1'
+     */
+    public VanitySearch(String prefix) {
+        this(prefix, Runtime.getRuntime().availableProcessors(), DEFAULT_BATCH_SIZE, null, DEFAULT_PROGRESS_INTERVAL_MILLIS);
+    }
+
+    /**
+     * @param prefix Wanted beginning of the address, starting with '1'
+     * @param threads Number of worker threads
+     * @param batchSize Number of candidates sharing one inversion
+     * @param listener Progress listener, may be null
+     * @param progressIntervalMillis Time between two progress reports
+     */
+    public VanitySearch(String prefix, int threads, int batchSize, ProgressListener listener, long progressIntervalMillis) {
+        if (prefix == null || prefix.isEmpty() || prefix.charAt(0) != '1') {
+            throw new IllegalArgumentException(String.format("address prefix must start with '1', got %s", prefix));
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (ALPHABET.indexOf(prefix.charAt(i)) < 0) {
+                throw new IllegalArgumentException(String.format("'%c' is not a Base58 character", prefix.charAt(i)));
+            }
+        }
+        if (threads < 1 || batchSize < 1 || progressIntervalMillis < 1) {
+            throw new IllegalArgumentException(String.format("threads, batch size and progress interval must be positive, got %d, %d and %d", threads, batchSize, progressIntervalMillis));
+        }
+        this.prefix = prefix;
+        this.threads = threads;
+        this.batchSize = batchSize;
+        this.listener = listener;
+        this.progressIntervalMillis = progressIntervalMillis;
+    }
+
+    /**
+     * Run the search until a key is found or {@link #cancel()} is called
+     *
+     * @return The WIF private key and address found, or null if the search was cancelled
+     * @throws InterruptedException if the calling thread is interrupted, which also stops the workers
+     */
+    public EcdsaUtils.SecureInfo search() throws InterruptedException {
+        startNanos = System.nanoTime();
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    work();
+                } finally {
+                    done.countDown();
+                }
+            }, "vanity-search-" + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        try {
+            while (!done.await(progressIntervalMillis, TimeUnit.MILLISECONDS)) {
+                if (listener != null) {
+                    listener.progress(getAttempts(), getRate());
+                }
+            }
+        } finally {
+            cancelled = true;
+        }
+        BigInteger secret = found.get();
+        if (secret == null) {
+            return null;
+        }
+        PrivateKey privateKey = new PrivateKey(Curve.secp256k1, secret);
+        String address = EcdsaUtils.generateAddress(privateKey.publicKey(), true);
+        if (!address.startsWith(prefix)) {
+            throw new IllegalStateException(String.format("found key has address %s, which does not start with %s", address, prefix));
+        }
+        return new EcdsaUtils.SecureInfo(EcdsaUtils.convert2Base58(privateKey), address);
+    }
+
+    /**
+     * Stop the workers; {@link #search()} then returns null unless a key was found already
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * @return Number of addresses checked so far
+     */
+    public long getAttempts() {
+        return attempts.get();
+    }
+
+    /**
+     * @return Addresses checked per second since the search started
+     */
+    public double getRate() {
+        long elapsed = System.nanoTime() - startNanos;
+        return elapsed <= 0 ? 0 : attempts.get() * 1e9 / elapsed;
+    }
+
+    private void work() {
+        Curve curve = Curve.secp256k1;
+        FieldElement gx = FieldElement.fromBigInteger(curve.G.x);
+        FieldElement gy = FieldElement.fromBigInteger(curve.G.y);
+        JacobianPoint[] batch = new JacobianPoint[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            batch[i] = new JacobianPoint();
+        }
+        FieldElement[] xs = new FieldElement[batchSize];
+        FieldElement[] ys = new FieldElement[batchSize];
+        byte[] publicKey = new byte[33];
+
+        BigInteger start = Entropy.scalar(curve.N);
+        JacobianPoint next = curve.generatorTable().multiply(start);
+        while (!cancelled && found.get() == null) {
+            for (int i = 0; i < batchSize; i++) {
+                batch[i].set(next);
+                next.addAffine(next, gx, gy);
+            }
+            JacobianPoint.toAffine(batch, xs, ys);
+            for (int i = 0; i < batchSize; i++) {
+                if (xs[i] == null) {
+                    continue;
+                }
+                publicKey[0] = (byte) (ys[i].isOdd() ? 3 : 2);
+                xs[i].getBytes(publicKey, 1);
+                if (matches(publicKey)) {
+                    found.compareAndSet(null, start.add(BigInteger.valueOf(i)).mod(curve.N));
+                    break;
+                }
+            }
+            attempts.addAndGet(batchSize);
+            start = start.add(BigInteger.valueOf(batchSize));
+        }
+    }
+
+    private boolean matches(byte[] publicKey) {
+        return Addresses.fromSec1(publicKey, 0, publicKey.length).startsWith(prefix);
+    }
+}
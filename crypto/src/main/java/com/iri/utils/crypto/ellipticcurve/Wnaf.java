@@ -0,0 +1,65 @@
+package com.iri.utils.crypto.ellipticcurve;
+import java.math.BigInteger;
+
+
+/**
+ * Width-w non-adjacent form of a scalar.
+ * <p>
+ * Every non-zero digit is odd and lies in (-2^(w-1), 2^(w-1)), and any w consecutive digits contain at
+ * most one non-zero digit, so a multiplication needs about bitLength / (w + 1) additions against a
+ * table of the 2^(w-2) odd multiples P, 3P, 5P, ...
+ */
+final class Wnaf {
+
+    static final int MIN_WINDOW = 2;
+    static final int MAX_WINDOW = 8;
+
+    private Wnaf() {
+        throw new UnsupportedOperationException("Wnaf is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * @param k non-negative scalar
+     * @param w window width in bits
+     * @return digits, least significant first, of length k.bitLength() + 1
+     */
+    static int[] compute(BigInteger k, int w) {
+        checkWindow(w);
+        int length = k.bitLength() + 1;
+        int[] digits = new int[length];
+        int carry = 0;
+        int bit = 0;
+        while (bit < length) {
+            if ((k.testBit(bit) ? 1 : 0) == carry) {
+                bit++;
+                continue;
+            }
+            int now = java.lang.Math.min(w, length - bit);
+            int word = carry;
+            for (int i = 0; i < now; i++) {
+                if (k.testBit(bit + i)) {
+                    word += 1 << i;
+                }
+            }
+            carry = (word >> (w - 1)) & 1;
+            word -= carry << w;
+            digits[bit] = word;
+            bit += now;
+        }
+        return digits;
+    }
+
+    /**
+     * @param w window width in bits
+     * @return number of odd multiples needed for that width
+     */
+    static int tableSize(int w) {
+        return 1 << (w - 2);
+    }
+
+    static void checkWindow(int w) {
+        if (w < MIN_WINDOW || w > MAX_WINDOW) {
+            throw new IllegalArgumentException(String.format("wNAF window must be between %d and %d, got %d", MIN_WINDOW, MAX_WINDOW, w));
+        }
+    }
+}
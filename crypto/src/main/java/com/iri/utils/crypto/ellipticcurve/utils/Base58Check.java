@@ -0,0 +1,79 @@
+package com.iri.utils.crypto.ellipticcurve.utils;
+
+import java.util.Arrays;
+
+/**
+ * Base58 and Base58Check encoding into caller supplied buffers.
+ * <p>
+ * The digits are computed by repeated division of the byte string by 58 inside the output array, so
+ * encoding needs neither a BigInteger nor any scratch space.
+ */
+public final class Base58Check {
+
+    public static final int CHECKSUM_LEN = 4;
+
+    private static final char[] ALPHABET = "123456789ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz".toCharArray();
+
+    private Base58Check() {
+        throw new UnsupportedOperationException("Base58Check is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * @param len Number of bytes to encode
+     * @return Room the output array needs for {@link #encode(byte[], int, int, char[], int)}
+     */
+    public static int maxEncodedLength(int len) {
+        // log(256) / log(58) < 1.38
+        return len * 138 / 100 + 1;
+    }
+
+    /**
+     * Base58 encode data[off..off + len), leading zero bytes becoming '1', into out starting at outOff
+     *
+     * @return Number of characters written
+     */
+    public static int encode(byte[] data, int off, int len, char[] out, int outOff) {
+        if (off < 0 || len < 0 || off > data.length - len) {
+            throw new IndexOutOfBoundsException(String.format("range %d + %d outside an array of %d", off, len, data.length));
+        }
+        int zeros = 0;
+        while (zeros < len && data[off + zeros] == 0) {
+            zeros++;
+        }
+        int size = maxEncodedLength(len - zeros);
+        if (outOff < 0 || outOff > out.length - zeros - size) {
+            throw new IndexOutOfBoundsException(String.format("no room for %d characters at %d in an array of %d", zeros + size, outOff, out.length));
+        }
+        // base 58 digits, most significant first, in out[base..base + size); the last used of them are set
+        int base = outOff + zeros;
+        Arrays.fill(out, base, base + size, (char) 0);
+        int used = 0;
+        for (int i = off + zeros; i < off + len; i++) {
+            int carry = data[i] & 0xFF;
+            int j = 0;
+            for (int k = base + size - 1; (carry != 0 || j < used) && k >= base; k--, j++) {
+                carry += out[k] << 8;
+                out[k] = (char) (carry % 58);
+                carry /= 58;
+            }
+            used = j;
+        }
+        Arrays.fill(out, outOff, base, ALPHABET[0]);
+        int skip = size - used;
+        for (int i = 0; i < used; i++) {
+            out[base + i] = ALPHABET[out[base + skip + i]];
+        }
+        return zeros + used;
+    }
+
+    /**
+     * @param payload Version byte followed by the data
+     * @return Base58 of the payload followed by the first four bytes of its double SHA-256
+     */
+    public static String encode(byte[] payload) {
+        byte[] data = Arrays.copyOf(payload, payload.length + Hashes.SHA256_LEN);
+        Hashes.doubleSha256(data, 0, payload.length, data, payload.length);
+        char[] out = new char[maxEncodedLength(payload.length + CHECKSUM_LEN)];
+        return new String(out, 0, encode(data, 0, payload.length + CHECKSUM_LEN, out, 0));
+    }
+}
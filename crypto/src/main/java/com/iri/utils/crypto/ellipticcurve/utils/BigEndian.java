@@ -0,0 +1,99 @@
+package com.iri.utils.crypto.ellipticcurve.utils;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Fixed-length unsigned big-endian numbers in byte arrays and ByteBuffers.
+ * <p>
+ * Writing reads the BigInteger bit by bit straight into the destination, so it allocates nothing; reading
+ * copies the bytes once into the magnitude of the new BigInteger. No hex strings are involved either way.
+ */
+public final class BigEndian {
+
+    private BigEndian() {
+        throw new UnsupportedOperationException("BigEndian is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * @return The unsigned number in in[off..off + len)
+     */
+    public static BigInteger toBigInteger(byte[] in, int off, int len) {
+        if (off < 0 || len < 0 || off > in.length - len) {
+            throw new IndexOutOfBoundsException(String.format("range %d + %d outside an array of %d", off, len, in.length));
+        }
+        return new BigInteger(1, off == 0 && len == in.length ? in : Arrays.copyOfRange(in, off, off + len));
+    }
+
+    public static BigInteger toBigInteger(byte[] in) {
+        return new BigInteger(1, in);
+    }
+
+    /**
+     * @return The unsigned number in the len bytes at the absolute index of the buffer, which is not changed
+     */
+    public static BigInteger toBigInteger(ByteBuffer in, int index, int len) {
+        if (index < 0 || len < 0 || index > in.limit() - len) {
+            throw new IndexOutOfBoundsException(String.format("range %d + %d outside a buffer of %d", index, len, in.limit()));
+        }
+        byte[] magnitude = new byte[len];
+        for (int i = 0; i < len; i++) {
+            magnitude[i] = in.get(index + i);
+        }
+        return new BigInteger(1, magnitude);
+    }
+
+    /**
+     * Write value to out[off..off + len), left-padded with zeros
+     *
+     * @throws IllegalArgumentException if value is negative or needs more than len bytes
+     */
+    public static void write(BigInteger value, byte[] out, int off, int len) {
+        checkFits(value, len);
+        if (off < 0 || off > out.length - len) {
+            throw new IndexOutOfBoundsException(String.format("no room for %d bytes at %d in an array of %d", len, off, out.length));
+        }
+        for (int i = 0; i < len; i++) {
+            out[off + i] = byteAt(value, len - 1 - i);
+        }
+    }
+
+    /**
+     * Write value to the len bytes at the absolute index of the buffer, left-padded with zeros; the
+     * buffer's position is not changed
+     */
+    public static void write(BigInteger value, ByteBuffer out, int index, int len) {
+        checkFits(value, len);
+        if (index < 0 || index > out.limit() - len) {
+            throw new IndexOutOfBoundsException(String.format("no room for %d bytes at %d in a buffer of %d", len, index, out.limit()));
+        }
+        for (int i = 0; i < len; i++) {
+            out.put(index + i, byteAt(value, len - 1 - i));
+        }
+    }
+
+    public static byte[] toBytes(BigInteger value, int len) {
+        byte[] out = new byte[len];
+        write(value, out, 0, len);
+        return out;
+    }
+
+    private static void checkFits(BigInteger value, int len) {
+        if (value.signum() < 0 || value.bitLength() > 8 * len) {
+            throw new IllegalArgumentException(String.format("%s does not fit in %d unsigned bytes", value, len));
+        }
+    }
+
+    /* byte number i counting from the least significant */
+    private static byte byteAt(BigInteger value, int i) {
+        if (8 * i >= value.bitLength()) {
+            return 0;
+        }
+        int b = 0;
+        for (int bit = 7; bit >= 0; bit--) {
+            b = (b << 1) | (value.testBit(8 * i + bit) ? 1 : 0);
+        }
+        return (byte) b;
+    }
+}
@@ -1,34 +1,35 @@
 package com.iri.utils.crypto.ellipticcurve.utils;
 import java.math.BigInteger;
-import java.util.Arrays;
 
 
+/**
+ * String and number conversions kept for compatibility; they are thin wrappers over {@link Hex} and
+ * {@link BigEndian}, which write into caller supplied buffers and are what the library uses internally.
+ */
 public final class BinaryAscii {
 
     public static String hexFromBinary(ByteString string) {
-        return hexFromBinary(string.getBytes());
+        StringBuilder hexString = new StringBuilder(2 * string.length());
+        for (int i = 0; i < string.length(); i++) {
+            Hex.append(hexString, string.getByte(i));
+        }
+        return hexString.toString();
     }
 
     public static String hexFromBinary(byte[] bytes) {
-        StringBuilder hexString = new StringBuilder();
-
-        for (byte aByte : bytes) {
-            String hex = Integer.toHexString(0xFF & aByte);
-            if (hex.length() == 1) {
-                hexString.append('0');
-            }
-            hexString.append(hex);
-        }
-        return hexString.toString();
+        return Hex.encode(bytes);
     }
 
+    /**
+     * @return The bytes of the hex number, without leading zero bytes
+     */
     public static byte[] binaryFromHex(String string) {
-        byte[] bytes = new BigInteger(string, 16).toByteArray();
+        byte[] bytes = Hex.decode((string.length() & 1) != 0 ? "0" + string : string);
         int i = 0;
         while (i < bytes.length && bytes[i] == 0) {
             i++;
         }
-        return Arrays.copyOfRange(bytes, i, bytes.length);
+        return i == 0 ? bytes : java.util.Arrays.copyOfRange(bytes, i, bytes.length);
     }
 
     public static byte[] toBytes(int c) {
@@ -42,19 +43,18 @@ public final class BinaryAscii {
      * @return Number in hex from string
      */
     public static BigInteger numberFromString(byte[] string) {
-        return new BigInteger(BinaryAscii.hexFromBinary(string), 16);
+        return BigEndian.toBigInteger(string);
     }
 
     /**
-     * Get a string representation of a number
+     * Get a string representation of a number. Leading zero bytes are dropped, so use
+     * {@link BigEndian#write(BigInteger, byte[], int, int)} where a fixed length is needed.
      *
      * @param number number to be converted in a string
      * @param length length max number of character for the string
      * @return hexadecimal string
      */
     public static ByteString stringFromNumber(BigInteger number, int length) {
-        String fmtStr = "%0" + String.valueOf(2 * length) + "x";
-        String hexString = String.format(fmtStr, number);
-        return new ByteString(BinaryAscii.binaryFromHex(hexString));
+        return new ByteString(BigEndian.toBytes(number, (number.bitLength() + 7) / 8));
     }
 }
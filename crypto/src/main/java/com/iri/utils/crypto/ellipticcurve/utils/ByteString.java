@@ -1,8 +1,15 @@
 package com.iri.utils.crypto.ellipticcurve.utils;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
+ * Byte string that may be a view of part of a larger array.
+ * <p>
+ * Instances are not thread-safe, including for calls that only read: {@link #substring(int, int)} marks the
+ * bytes of this string as shared, so that a later {@link #replace(int, byte)} copies them before writing.
+ * Synchronize externally if an instance is used from several threads.
+ *
  * Company: SFL LLC
  * Created on 20-Jan-19
  *
@@ -10,77 +17,212 @@ import java.util.Arrays;
  */
 public class ByteString {
     private byte[] bytes;
+    private int offset;
+    private int length;
+    // the backing array is also visible through another ByteString, so it must not be written to
+    private boolean shared;
 
     public ByteString() {
-        bytes = new byte[]{};
+        this(new byte[]{});
     }
 
+    /**
+     * Wrap the array without copying it
+     */
     public ByteString(byte[] bytes) {
+        this(bytes, 0, bytes.length);
+    }
+
+    private ByteString(byte[] bytes, int offset, int length) {
         this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * View of bytes[offset..offset + length) without copying it
+     */
+    public static ByteString wrap(byte[] bytes, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > bytes.length - length) {
+            throw new IndexOutOfBoundsException(String.format("range %d + %d outside an array of %d", offset, length, bytes.length));
+        }
+        return new ByteString(bytes, offset, length);
     }
 
     public short getShort(int index) {
-        return (short) (bytes[index] & 0xFF);
+        return (short) (getByte(index) & 0xFF);
+    }
+
+    public byte getByte(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(String.format("index %d outside a string of %d bytes", index, length));
+        }
+        return bytes[offset + index];
     }
 
     public ByteString substring(int start) {
-        return substring(start, bytes.length);
+        return substring(start, length);
     }
 
+    /**
+     * @param end Exclusive end; a negative end counts back from the end of the string
+     * @return A view sharing the bytes of this string; nothing is copied
+     */
     public ByteString substring(int start, int end) {
-        if (end > bytes.length) {
-            end = bytes.length;
-        }
         if (end < 0) {
-            end = bytes.length - end;
+            end = length + end;
         }
-        if (start > end) {
+        if (end > length) {
+            end = length;
+        }
+        if (start >= end) {
             return new ByteString();
         }
-
-        return new ByteString(Arrays.copyOfRange(bytes, start, end));
+        if (start < 0) {
+            throw new IndexOutOfBoundsException(String.format("substring start %d is negative", start));
+        }
+        shared = true;
+        ByteString view = new ByteString(bytes, offset + start, end - start);
+        view.shared = true;
+        return view;
     }
 
+    /**
+     * @return A copy of the bytes
+     */
     public byte[] getBytes() {
-        return Arrays.copyOf(bytes, bytes.length);
+        return Arrays.copyOfRange(bytes, offset, offset + length);
+    }
+
+    /**
+     * Copy the bytes to dest starting at destOffset
+     */
+    public void copyTo(byte[] dest, int destOffset) {
+        System.arraycopy(bytes, offset, dest, destOffset, length);
+    }
+
+    /**
+     * @return A read-only buffer over the bytes, without copying them
+     */
+    public ByteBuffer asByteBuffer() {
+        return ByteBuffer.wrap(bytes, offset, length).slice().asReadOnlyBuffer();
     }
 
     public int length() {
-        return bytes.length;
+        return length;
     }
 
     public boolean isEmpty() {
-        return bytes.length == 0;
+        return length == 0;
     }
 
+    /**
+     * Append b; this copies the whole string, so strings made of many pieces should use a {@link Builder}
+     */
     public void insert(byte[] b) {
-        this.insert(bytes.length, b);
+        this.insert(length, b);
     }
 
+    /**
+     * Insert b at index; this copies the whole string, so strings made of many pieces should use a
+     * {@link Builder}
+     */
     public void insert(int index, byte[] b) {
-        byte[] result = new byte[b.length + bytes.length];
-        System.arraycopy(bytes, 0, result, 0, index);
+        byte[] result = new byte[b.length + length];
+        System.arraycopy(bytes, offset, result, 0, index);
         System.arraycopy(b, 0, result, index, b.length);
-        if (index < bytes.length) {
-            System.arraycopy(bytes, index, result, b.length + index, bytes.length - index);
+        if (index < length) {
+            System.arraycopy(bytes, offset + index, result, b.length + index, length - index);
         }
         this.bytes = result;
+        this.offset = 0;
+        this.length = result.length;
+        this.shared = false;
     }
 
     public void replace(int index, byte value) {
-        bytes[index] = value;
+        getByte(index);
+        if (shared) {
+            bytes = getBytes();
+            offset = 0;
+            shared = false;
+        }
+        bytes[offset + index] = value;
     }
 
 
     @Override
     public String toString() {
-        if (bytes.length == 0) {
+        if (length == 0) {
             return "";
         }
         try {
-            return new String(bytes, "ASCII");
+            return new String(bytes, offset, length, "ASCII");
         } catch (UnsupportedEncodingException e) {
             throw new RuntimeException();
         }
     }
+
+    /**
+     * Growable buffer that assembles a ByteString from pieces with amortized linear copying
+     */
+    public static final class Builder {
+        private byte[] buffer;
+        private int length;
+
+        public Builder() {
+            this(16);
+        }
+
+        /**
+         * @param capacity Expected final length, to avoid growing the buffer
+         */
+        public Builder(int capacity) {
+            buffer = new byte[java.lang.Math.max(capacity, 1)];
+        }
+
+        public Builder append(int b) {
+            ensure(1);
+            buffer[length++] = (byte) b;
+            return this;
+        }
+
+        public Builder append(byte[] b) {
+            return append(b, 0, b.length);
+        }
+
+        public Builder append(byte[] b, int off, int len) {
+            ensure(len);
+            System.arraycopy(b, off, buffer, length, len);
+            length += len;
+            return this;
+        }
+
+        public Builder append(ByteString s) {
+            ensure(s.length);
+            System.arraycopy(s.bytes, s.offset, buffer, length, s.length);
+            length += s.length;
+            return this;
+        }
+
+        public int length() {
+            return length;
+        }
+
+        /**
+         * @return The bytes appended so far; later appends do not change the result
+         */
+        public ByteString build() {
+            ByteString string = new ByteString(buffer, 0, length);
+            // later appends only write past length, but replace() on the result must not reach them
+            string.shared = true;
+            return string;
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, java.lang.Math.max(buffer.length * 2, length + extra));
+            }
+        }
+    }
 }
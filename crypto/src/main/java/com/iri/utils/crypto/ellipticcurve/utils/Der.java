@@ -8,6 +8,9 @@ import java.util.List;
 import static com.iri.utils.crypto.ellipticcurve.utils.BinaryAscii.*;
 
 /**
+ * DER encoding, and the original decoding helpers that split a ByteString into a value and the rest;
+ * {@link DerReader} decodes without splitting.
+ * <p>
  * Created on 05-Jan-19
  *
  * @author Taron Petrosyan
@@ -20,13 +23,15 @@ public class Der {
 
     public static ByteString encodeSequence(ByteString... encodedPieces) {
         int totalLen = 0;
-        ByteString stringPieces = new ByteString(toBytes(0x30));
         for (ByteString p : encodedPieces) {
             totalLen += p.length();
-            stringPieces.insert(p.getBytes());
         }
-        stringPieces.insert(1, encodeLength(totalLen).getBytes());
-        return stringPieces;
+        byte[] out = new byte[DerWriter.elementSize(totalLen)];
+        DerWriter writer = new DerWriter(out, 0).writeSequence(totalLen);
+        for (ByteString p : encodedPieces) {
+            writer.write(p);
+        }
+        return new ByteString(out);
     }
 
     public static ByteString encodeLength(int length) {
@@ -34,48 +39,29 @@ public class Der {
         if (length < 0x80) {
             return new ByteString(toBytes(length));
         }
-        String hexString = String.format("%x", length);
-        if (hexString.length() % 2 != 0) {
-            hexString = "0" + hexString;
+        int llen = (Integer.SIZE - Integer.numberOfLeadingZeros(length) + 7) / 8;
+        byte[] s = new byte[1 + llen];
+        s[0] = (byte) (0x80 | llen);
+        for (int i = llen; i > 0; i--, length >>>= 8) {
+            s[i] = (byte) length;
         }
-        ByteString s = new ByteString(binaryFromHex(hexString));
-        s.insert(0, toBytes((0x80 | s.length())));
-        return s;
-
+        return new ByteString(s);
     }
 
     public static ByteString encodeInteger(BigInteger r) {
-        assert r.compareTo(BigInteger.ZERO) >= 0;
-        String h = String.format("%x", r);
-        if (h.length() % 2 != 0) {
-            h = "0" + h;
-        }
-        ByteString s = new ByteString(binaryFromHex(h));
-        short num = s.getShort(0);
-        if (num <= 0x7F) {
-            s.insert(0, toBytes(s.length()));
-            s.insert(0, toBytes(0x02));
-            return s;
-        }
-        int length = s.length();
-        s.insert(0, toBytes(0x00));
-        s.insert(0, toBytes((length + 1)));
-        s.insert(0, toBytes(0x02));
-        return s;
+        byte[] out = new byte[DerWriter.integerSize(r)];
+        new DerWriter(out, 0).writeInteger(r);
+        return new ByteString(out);
     }
 
     public static ByteString encodeNumber(long n) {
-        ByteString b128Digits = new ByteString();
-        while (n != 0) {
-            b128Digits.insert(0, toBytes((int) (n & 0x7f) | 0x80));
+        byte[] digits = new byte[10];
+        int start = digits.length;
+        do {
+            digits[--start] = (byte) ((n & 0x7f) | (start == digits.length - 1 ? 0 : 0x80));
             n = n >> 7;
-        }
-        if (b128Digits.isEmpty()) {
-            b128Digits.insert(toBytes(0));
-        }
-        int lastIndex = b128Digits.length() - 1;
-        b128Digits.replace(lastIndex, (byte) (b128Digits.getShort(lastIndex) & 0x7f));
-        return b128Digits;
+        } while (n != 0);
+        return ByteString.wrap(digits, start, digits.length - start);
     }
 
     public static ByteString encodeOid(long... pieces) {
@@ -83,32 +69,29 @@ public class Der {
         long second = pieces[1];
         assert first <= 2;
         assert second <= 39;
-        ByteString body = new ByteString();
+        ByteString.Builder body = new ByteString.Builder(pieces.length * 2).append((int) (40 * first + second));
         for (int i = 2; i < pieces.length; i++) {
-            body.insert(encodeNumber(pieces[i]).getBytes());
+            body.append(encodeNumber(pieces[i]));
         }
-        body.insert(0, toBytes((int) (40 * first + second)));
-        body.insert(0, encodeLength(body.length()).getBytes());
-        body.insert(0, toBytes(0x06));
-        return body;
+        return encodeTagged(0x06, body.build());
     }
 
     public static ByteString encodeBitString(ByteString s) {
-        s.insert(0, encodeLength(s.length()).getBytes());
-        s.insert(0, toBytes(0x03));
-        return s;
+        return encodeTagged(0x03, s);
     }
 
     public static ByteString encodeOctetString(ByteString s) {
-        s.insert(0, encodeLength(s.length()).getBytes());
-        s.insert(0, toBytes(0x04));
-        return s;
+        return encodeTagged(0x04, s);
     }
 
     public static ByteString encodeConstructed(long tag, ByteString value) {
-        value.insert(0, encodeLength(value.length()).getBytes());
-        value.insert(0, toBytes((int) (0xa0 + tag)));
-        return value;
+        return encodeTagged((int) (0xa0 + tag), value);
+    }
+
+    private static ByteString encodeTagged(int tag, ByteString value) {
+        byte[] out = new byte[DerWriter.elementSize(value.length())];
+        new DerWriter(out, 0).writeHeader(tag, value.length()).write(value);
+        return new ByteString(out);
     }
 
     public static int[] readLength(ByteString string) {
@@ -121,7 +104,11 @@ public class Der {
         if (llen > string.length() - 1) {
             throw new RuntimeException("ran out of length bytes");
         }
-        return new int[]{Integer.valueOf(hexFromBinary(string.substring(1, 1 + llen)), 16), 1 + llen};
+        int length = 0;
+        for (int i = 1; i <= llen; i++) {
+            length = (length << 8) | string.getShort(i);
+        }
+        return new int[]{length, 1 + llen};
     }
 
     public static int[] readNumber(ByteString string) {
@@ -163,7 +150,7 @@ public class Der {
         ByteString rest = string.substring(1 + llen + length);
         short nbytes = numberbytes.getShort(0);
         assert nbytes < 0x80;
-        return new Object[]{new BigInteger(hexFromBinary(numberbytes), 16), rest};
+        return new Object[]{new BigInteger(1, numberbytes.getBytes()), rest};
     }
 
     public static Object[] removeObject(ByteString string) {
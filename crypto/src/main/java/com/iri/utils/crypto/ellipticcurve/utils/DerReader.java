@@ -0,0 +1,208 @@
+package com.iri.utils.crypto.ellipticcurve.utils;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+/**
+ * Cursor over DER encoded bytes in a ByteBuffer.
+ * <p>
+ * Every read checks the tag, decodes the length directly from the bytes and makes sure the element fits
+ * in what is left of the enclosing element, then moves the cursor past it. Only minimal encodings are
+ * accepted, so each value has exactly one encoding. Constructed elements such as a
+ * SEQUENCE come back as a reader bounded to their contents, sharing the buffer, so nothing of the input is
+ * copied until a value is materialized. The buffer's own position and limit are never changed.
+ */
+public final class DerReader {
+
+    private static final int SEQUENCE = 0x30;
+    private static final int INTEGER = 0x02;
+    private static final int BIT_STRING = 0x03;
+    private static final int OCTET_STRING = 0x04;
+    private static final int OBJECT = 0x06;
+    private static final int CONSTRUCTED = 0xa0;
+
+    private final ByteBuffer buffer;
+    private int position;
+    private final int limit;
+
+    /**
+     * Read the bytes between the buffer's position and limit
+     */
+    public DerReader(ByteBuffer buffer) {
+        this(buffer, buffer.position(), buffer.limit());
+    }
+
+    public DerReader(byte[] der) {
+        this(ByteBuffer.wrap(der));
+    }
+
+    private DerReader(ByteBuffer buffer, int position, int limit) {
+        this.buffer = buffer;
+        this.position = position;
+        this.limit = limit;
+    }
+
+    public boolean hasRemaining() {
+        return position < limit;
+    }
+
+    public int remaining() {
+        return limit - position;
+    }
+
+    /**
+     * @return Reader over the contents of the SEQUENCE at the cursor
+     */
+    public DerReader readSequence() {
+        int length = readHeader(SEQUENCE, "sequence");
+        return child(length);
+    }
+
+    /**
+     * @param tag Context-specific tag number, 0 to 31
+     * @return Reader over the contents of the constructed element [tag] at the cursor
+     */
+    public DerReader readConstructed(int tag) {
+        int length = readHeader(CONSTRUCTED + tag, "constructed tag");
+        return child(length);
+    }
+
+    /**
+     * @return The non-negative INTEGER at the cursor
+     */
+    public BigInteger readInteger() {
+        int length = readHeader(INTEGER, "integer");
+        if (length == 0) {
+            throw new RuntimeException("empty DER integer");
+        }
+        if ((buffer.get(position) & 0x80) != 0) {
+            throw new RuntimeException("negative DER integer");
+        }
+        if (length > 1 && buffer.get(position) == 0 && (buffer.get(position + 1) & 0x80) == 0) {
+            throw new RuntimeException("non-minimal DER integer: redundant leading zero");
+        }
+        byte[] magnitude = new byte[length];
+        for (int i = 0; i < length; i++) {
+            magnitude[i] = buffer.get(position + i);
+        }
+        position += length;
+        return new BigInteger(1, magnitude);
+    }
+
+    /**
+     * @return The arcs of the OBJECT IDENTIFIER at the cursor
+     */
+    public long[] readOid() {
+        int length = readHeader(OBJECT, "object");
+        int end = position + length;
+        int count = 1;
+        for (int i = position; i < end; i++) {
+            if ((buffer.get(i) & 0x80) == 0) {
+                count++;
+            }
+        }
+        if (length == 0 || (buffer.get(end - 1) & 0x80) != 0) {
+            throw new RuntimeException("truncated DER object identifier");
+        }
+        long[] oid = new long[count];
+        int arc = 1;
+        long number = 0;
+        for (; position < end; position++) {
+            int b = buffer.get(position) & 0xFF;
+            if (number > (Long.MAX_VALUE >>> 7)) {
+                throw new RuntimeException("DER object identifier arc does not fit in a long");
+            }
+            number = (number << 7) | (b & 0x7f);
+            if ((b & 0x80) == 0) {
+                if (arc == 1) {
+                    long first = java.lang.Math.min(number / 40, 2);
+                    oid[0] = first;
+                    oid[1] = number - 40 * first;
+                    arc = 2;
+                } else {
+                    oid[arc++] = number;
+                }
+                number = 0;
+            }
+        }
+        return oid;
+    }
+
+    /**
+     * @return View of the contents of the OCTET STRING at the cursor
+     */
+    public ByteBuffer readOctetString() {
+        int length = readHeader(OCTET_STRING, "octetstring");
+        return view(length);
+    }
+
+    /**
+     * @return View of the contents of the BIT STRING at the cursor after its unused-bits octet, which must be 0
+     */
+    public ByteBuffer readBitString() {
+        int length = readHeader(BIT_STRING, "bitstring");
+        if (length == 0 || buffer.get(position) != 0) {
+            throw new RuntimeException("DER bitstring is empty or not a whole number of bytes");
+        }
+        position++;
+        return view(length - 1);
+    }
+
+    /**
+     * @param what Name of the element for the error message
+     * @throws RuntimeException if anything is left unread
+     */
+    public void expectEnd(String what) {
+        if (position != limit) {
+            throw new RuntimeException(String.format("trailing junk after %s: %d bytes", what, limit - position));
+        }
+    }
+
+    /* checks the tag and the length, leaving the cursor at the first content byte */
+    private int readHeader(int tag, String name) {
+        if (position >= limit) {
+            throw new RuntimeException(String.format("wanted %s (0x%02x), got end of input", name, tag));
+        }
+        int actual = buffer.get(position++) & 0xFF;
+        if (actual != tag) {
+            throw new RuntimeException(String.format("wanted %s (0x%02x), got 0x%02x", name, tag, actual));
+        }
+        if (position >= limit) {
+            throw new RuntimeException("ran out of length bytes");
+        }
+        int length = buffer.get(position++) & 0xFF;
+        if ((length & 0x80) != 0) {
+            int llen = length & 0x7f;
+            if (llen == 0 || llen > 4 || llen > limit - position) {
+                throw new RuntimeException(String.format("unsupported or truncated DER length of %d bytes", llen));
+            }
+            if (buffer.get(position) == 0) {
+                throw new RuntimeException("non-minimal DER length: leading zero byte");
+            }
+            length = 0;
+            for (int i = 0; i < llen; i++) {
+                length = (length << 8) | (buffer.get(position++) & 0xFF);
+            }
+            if (length >= 0 && length < 0x80) {
+                throw new RuntimeException(String.format("non-minimal DER length: long form for %d", length));
+            }
+        }
+        if (length < 0 || length > limit - position) {
+            throw new RuntimeException(String.format("DER length %d exceeds the %d bytes left", length & 0xFFFFFFFFL, limit - position));
+        }
+        return length;
+    }
+
+    private DerReader child(int length) {
+        DerReader child = new DerReader(buffer, position, position + length);
+        position += length;
+        return child;
+    }
+
+    private ByteBuffer view(int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.limit(position + length).position(position);
+        position += length;
+        return view.slice();
+    }
+}
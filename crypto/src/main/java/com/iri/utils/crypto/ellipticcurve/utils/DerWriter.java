@@ -0,0 +1,148 @@
+package com.iri.utils.crypto.ellipticcurve.utils;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+/**
+ * Writes DER into a caller supplied array or ByteBuffer in one pass.
+ * <p>
+ * DER puts the length of every element before its contents, so the sizes are computed first with the
+ * static size methods, and then the headers and values are written front to back with no copying.
+ * INTEGER values are read out of the BigInteger bit by bit, so writing allocates nothing.
+ */
+public final class DerWriter {
+
+    private static final int SEQUENCE = 0x30;
+    private static final int INTEGER = 0x02;
+
+    private final byte[] array;
+    private final ByteBuffer buffer;
+    private int position;
+
+    /**
+     * Write into out starting at off
+     */
+    public DerWriter(byte[] out, int off) {
+        this.array = out;
+        this.buffer = null;
+        this.position = off;
+    }
+
+    /**
+     * Write at the buffer's position, advancing it
+     */
+    public DerWriter(ByteBuffer out) {
+        this.array = null;
+        this.buffer = out;
+    }
+
+    /**
+     * @return Number of bytes the length field of an element with contentLength bytes of contents takes
+     */
+    public static int lengthSize(int contentLength) {
+        if (contentLength < 0x80) {
+            return 1;
+        }
+        return 1 + (Integer.SIZE - Integer.numberOfLeadingZeros(contentLength) + 7) / 8;
+    }
+
+    /**
+     * @return Size of a whole element, tag and length included, with contentLength bytes of contents
+     */
+    public static int elementSize(int contentLength) {
+        return 1 + lengthSize(contentLength) + contentLength;
+    }
+
+    /**
+     * @return Size of the contents of the INTEGER encoding of a non-negative value
+     */
+    public static int integerContentLength(BigInteger value) {
+        // one more byte than the magnitude needs when its top bit is set, which bitLength / 8 + 1 covers
+        return value.bitLength() / 8 + 1;
+    }
+
+    /**
+     * @return Size of the whole INTEGER element of a non-negative value
+     */
+    public static int integerSize(BigInteger value) {
+        return elementSize(integerContentLength(value));
+    }
+
+    /**
+     * Write the header of a SEQUENCE whose contents, written next, take contentLength bytes
+     */
+    public DerWriter writeSequence(int contentLength) {
+        return writeHeader(SEQUENCE, contentLength);
+    }
+
+    /**
+     * Write the tag and length of any element whose contents are written next
+     */
+    public DerWriter writeHeader(int tag, int contentLength) {
+        put(tag);
+        if (contentLength < 0x80) {
+            put(contentLength);
+            return this;
+        }
+        int llen = lengthSize(contentLength) - 1;
+        put(0x80 | llen);
+        for (int i = llen - 1; i >= 0; i--) {
+            put(contentLength >>> (8 * i));
+        }
+        return this;
+    }
+
+    /**
+     * Write a non-negative INTEGER
+     */
+    public DerWriter writeInteger(BigInteger value) {
+        if (value.signum() < 0) {
+            throw new IllegalArgumentException(String.format("DER integers are written for non-negative values only, got %s", value));
+        }
+        int length = integerContentLength(value);
+        writeHeader(INTEGER, length);
+        for (int i = length - 1; i >= 0; i--) {
+            int b = 0;
+            for (int bit = 7; bit >= 0; bit--) {
+                b = (b << 1) | (value.testBit(8 * i + bit) ? 1 : 0);
+            }
+            put(b);
+        }
+        return this;
+    }
+
+    public DerWriter write(ByteString bytes) {
+        if (array != null) {
+            bytes.copyTo(array, position);
+            position += bytes.length();
+        } else {
+            buffer.put(bytes.asByteBuffer());
+        }
+        return this;
+    }
+
+    public DerWriter write(byte[] bytes, int off, int len) {
+        if (array != null) {
+            System.arraycopy(bytes, off, array, position, len);
+            position += len;
+        } else {
+            buffer.put(bytes, off, len);
+        }
+        return this;
+    }
+
+    /**
+     * @return Index in the array, or position in the buffer, of the next byte to be written
+     */
+    public int position() {
+        return array != null ? position : buffer.position();
+    }
+
+    private void put(int b) {
+        if (array != null) {
+            array[position++] = (byte) b;
+        } else {
+            buffer.put((byte) b);
+        }
+    }
+}
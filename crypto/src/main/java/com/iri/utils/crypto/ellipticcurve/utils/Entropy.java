@@ -0,0 +1,148 @@
+package com.iri.utils.crypto.ellipticcurve.utils;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * Striped, buffered front-end to {@link SecureRandom} for keys and nonces.
+ * <p>
+ * Threads are spread over a power-of-two number of stripes, each with its own generator and a buffer of
+ * random bytes, so concurrent callers rarely meet on the same lock and never on the system entropy pool.
+ * A stripe replaces its generator with a freshly self-seeded one after {@link #RESEED_INTERVAL} bytes.
+ * Scalars are drawn by rejection sampling and are therefore exactly uniform.
+ */
+public final class Entropy {
+
+    static final int BUFFER_SIZE = 512;
+    static final long RESEED_INTERVAL = 1L << 20;
+
+    private static final Stripe[] STRIPES;
+
+    static {
+        int stripes = Integer.highestOneBit(java.lang.Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1;
+        STRIPES = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            STRIPES[i] = new Stripe();
+        }
+    }
+
+    private Entropy() {
+        throw new UnsupportedOperationException("Entropy is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Fill out[off..off + len) with random bytes
+     */
+    public static void nextBytes(byte[] out, int off, int len) {
+        stripe().read(out, off, len);
+    }
+
+    /**
+     * @param bound Exclusive upper bound, at least 1
+     * @return Uniformly distributed value in [0, bound)
+     */
+    public static BigInteger below(BigInteger bound) {
+        if (bound.signum() <= 0) {
+            throw new IllegalArgumentException(String.format("bound must be positive, got %s", bound));
+        }
+        byte[] buffer = new byte[(bound.bitLength() + 7) / 8];
+        BigInteger value;
+        do {
+            draw(buffer, 0, buffer.length, bound.bitLength());
+            value = new BigInteger(1, buffer);
+        } while (value.compareTo(bound) >= 0);
+        Arrays.fill(buffer, (byte) 0);
+        return value;
+    }
+
+    /**
+     * @param n Order of the group, greater than 1
+     * @return Uniformly distributed scalar in [1, n)
+     */
+    public static BigInteger scalar(BigInteger n) {
+        return below(n.subtract(BigInteger.ONE)).add(BigInteger.ONE);
+    }
+
+    /**
+     * Write a uniformly distributed scalar in [1, n) big-endian into out[off..off + len), where len is the byte
+     * length of n, without creating a BigInteger for the result.
+     *
+     * @param n Order of the group, greater than 1
+     * @return The number of bytes written
+     */
+    public static int scalar(BigInteger n, byte[] out, int off) {
+        byte[] bound = n.toByteArray();
+        int len = (n.bitLength() + 7) / 8;
+        int skip = bound.length - len;
+        do {
+            draw(out, off, len, n.bitLength());
+        } while (isZero(out, off, len) || compare(out, off, bound, skip, len) >= 0);
+        return len;
+    }
+
+    /* len random bytes with everything above the lowest bits bits cleared */
+    private static void draw(byte[] out, int off, int len, int bits) {
+        nextBytes(out, off, len);
+        int excess = len * 8 - bits;
+        out[off] &= (byte) (0xFF >>> excess);
+    }
+
+    private static boolean isZero(byte[] a, int off, int len) {
+        int acc = 0;
+        for (int i = 0; i < len; i++) {
+            acc |= a[off + i];
+        }
+        return acc == 0;
+    }
+
+    private static int compare(byte[] a, int aOff, byte[] b, int bOff, int len) {
+        for (int i = 0; i < len; i++) {
+            int x = a[aOff + i] & 0xFF;
+            int y = b[bOff + i] & 0xFF;
+            if (x != y) {
+                return x < y ? -1 : 1;
+            }
+        }
+        return 0;
+    }
+
+    private static Stripe stripe() {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return STRIPES[(hash >>> 16) & (STRIPES.length - 1)];
+    }
+
+    private static final class Stripe {
+
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position = BUFFER_SIZE;
+        private long served;
+        private SecureRandom random = new SecureRandom();
+
+        synchronized void read(byte[] out, int off, int len) {
+            while (len > 0) {
+                if (position == BUFFER_SIZE) {
+                    refill();
+                }
+                int n = java.lang.Math.min(len, BUFFER_SIZE - position);
+                System.arraycopy(buffer, position, out, off, n);
+                // bytes handed out are not kept around
+                Arrays.fill(buffer, position, position + n, (byte) 0);
+                position += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        private void refill() {
+            if (served >= RESEED_INTERVAL) {
+                random = new SecureRandom();
+                served = 0;
+            }
+            random.nextBytes(buffer);
+            served += BUFFER_SIZE;
+            position = 0;
+        }
+    }
+}
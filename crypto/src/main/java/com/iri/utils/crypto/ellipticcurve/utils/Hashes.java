@@ -0,0 +1,167 @@
+package com.iri.utils.crypto.ellipticcurve.utils;
+
+import java.nio.ByteBuffer;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * SHA-256, double SHA-256 and Hash160 (RIPEMD-160 of SHA-256) over pooled digests.
+ * <p>
+ * {@link MessageDigest#getInstance(String)} does a provider lookup and allocates on every call. Digests are
+ * instead borrowed from a lock-free pool and handed back after use, so a pool never holds more instances
+ * than there were concurrent callers. Unlike a ThreadLocal this does not keep one digest per thread alive,
+ * which matters once there are many short-lived or virtual threads, and nothing blocks while holding one.
+ * <p>
+ * ByteBuffer inputs are consumed: their position is moved to the limit. The methods taking an output array
+ * write the hash there and allocate nothing, for loops over many keys.
+ */
+public final class Hashes {
+
+    private static final ConcurrentLinkedQueue<MessageDigest> SHA256 = new ConcurrentLinkedQueue<>();
+    private static final ConcurrentLinkedQueue<Hash160> HASH160 = new ConcurrentLinkedQueue<>();
+
+    public static final int SHA256_LEN = 32;
+    public static final int HASH160_LEN = Ripemd160.HASH_LEN;
+
+    private Hashes() {
+        throw new UnsupportedOperationException("Hashes is a utility class and cannot be instantiated");
+    }
+
+    public static byte[] sha256(byte[] data) {
+        MessageDigest digest = borrow();
+        try {
+            return digest.digest(data);
+        } finally {
+            SHA256.offer(digest);
+        }
+    }
+
+    public static byte[] sha256(ByteBuffer data) {
+        MessageDigest digest = borrow();
+        try {
+            digest.update(data);
+            return digest.digest();
+        } finally {
+            SHA256.offer(digest);
+        }
+    }
+
+    /**
+     * @return SHA-256(SHA-256(data)), as used for message hashes and Base58Check checksums
+     */
+    public static byte[] doubleSha256(byte[] data) {
+        MessageDigest digest = borrow();
+        try {
+            return digest.digest(digest.digest(data));
+        } finally {
+            SHA256.offer(digest);
+        }
+    }
+
+    public static byte[] doubleSha256(ByteBuffer data) {
+        MessageDigest digest = borrow();
+        try {
+            digest.update(data);
+            return digest.digest(digest.digest());
+        } finally {
+            SHA256.offer(digest);
+        }
+    }
+
+    /**
+     * Write SHA-256(SHA-256(data[off..off + len))) to out[outOff..outOff + 32); out may overlap data
+     */
+    public static void doubleSha256(byte[] data, int off, int len, byte[] out, int outOff) {
+        checkRoom(out, outOff, SHA256_LEN);
+        MessageDigest digest = borrow();
+        try {
+            digest.update(data, off, len);
+            digest.digest(out, outOff, SHA256_LEN);
+            digest.update(out, outOff, SHA256_LEN);
+            digest.digest(out, outOff, SHA256_LEN);
+        } catch (DigestException e) {
+            throw new IllegalStateException("SHA-256 digest did not fit in 32 bytes", e);
+        } finally {
+            SHA256.offer(digest);
+        }
+    }
+
+    /**
+     * @return RIPEMD-160(SHA-256(data)), the hash a Bitcoin address is built from
+     */
+    public static byte[] hash160(byte[] data) {
+        byte[] hash = new byte[HASH160_LEN];
+        hash160(data, 0, data.length, hash, 0);
+        return hash;
+    }
+
+    public static byte[] hash160(ByteBuffer data) {
+        byte[] hash = new byte[HASH160_LEN];
+        MessageDigest digest = borrow();
+        try {
+            digest.update(data);
+            hash160(digest, hash, 0);
+        } finally {
+            SHA256.offer(digest);
+        }
+        return hash;
+    }
+
+    /**
+     * Write RIPEMD-160(SHA-256(data[off..off + len))) to out[outOff..outOff + 20); the SHA-256 result never
+     * leaves a pooled buffer
+     */
+    public static void hash160(byte[] data, int off, int len, byte[] out, int outOff) {
+        checkRoom(out, outOff, HASH160_LEN);
+        MessageDigest digest = borrow();
+        try {
+            digest.update(data, off, len);
+            hash160(digest, out, outOff);
+        } finally {
+            SHA256.offer(digest);
+        }
+    }
+
+    /* finish the SHA-256 in digest and hash its result again with RIPEMD-160 */
+    private static void hash160(MessageDigest digest, byte[] out, int outOff) {
+        Hash160 hash160 = HASH160.poll();
+        if (hash160 == null) {
+            hash160 = new Hash160();
+        }
+        try {
+            digest.digest(hash160.sha256, 0, SHA256_LEN);
+            hash160.ripemd160.update(hash160.sha256, 0, SHA256_LEN);
+            hash160.ripemd160.digest(out, outOff);
+        } catch (DigestException e) {
+            throw new IllegalStateException("SHA-256 digest did not fit in 32 bytes", e);
+        } finally {
+            HASH160.offer(hash160);
+        }
+    }
+
+    /* checked before a digest is touched, so a pooled digest is never left holding half a message */
+    private static void checkRoom(byte[] out, int outOff, int len) {
+        if (outOff < 0 || outOff > out.length - len) {
+            throw new IndexOutOfBoundsException(String.format("no room for %d bytes at %d in an array of %d", len, outOff, out.length));
+        }
+    }
+
+    private static MessageDigest borrow() {
+        MessageDigest digest = SHA256.poll();
+        if (digest != null) {
+            return digest;
+        }
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not find SHA-256 message digest in provided java environment");
+        }
+    }
+
+    private static final class Hash160 {
+        final byte[] sha256 = new byte[SHA256_LEN];
+        final Ripemd160 ripemd160 = new Ripemd160();
+    }
+}
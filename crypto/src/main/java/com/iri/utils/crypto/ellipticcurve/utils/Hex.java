@@ -0,0 +1,99 @@
+package com.iri.utils.crypto.ellipticcurve.utils;
+
+import java.util.Arrays;
+
+/**
+ * Table-driven lowercase hex encoding into, and decoding from, caller supplied buffers.
+ */
+public final class Hex {
+
+    private static final char[] DIGITS = "0123456789abcdef".toCharArray();
+    // value of every ASCII hex digit, either case, and -1 for all other characters
+    private static final byte[] VALUES = new byte[128];
+
+    static {
+        Arrays.fill(VALUES, (byte) -1);
+        for (int i = 0; i < 16; i++) {
+            VALUES[DIGITS[i]] = (byte) i;
+            VALUES[Character.toUpperCase(DIGITS[i])] = (byte) i;
+        }
+    }
+
+    private Hex() {
+        throw new UnsupportedOperationException("Hex is a utility class and cannot be instantiated");
+    }
+
+    /**
+     * Write the two hex digits of every byte of in[off..off + len) to out starting at outOff
+     *
+     * @return Number of characters written, 2 * len
+     */
+    public static int encode(byte[] in, int off, int len, char[] out, int outOff) {
+        if (off < 0 || len < 0 || off > in.length - len) {
+            throw new IndexOutOfBoundsException(String.format("range %d + %d outside an array of %d", off, len, in.length));
+        }
+        if (outOff < 0 || outOff > out.length - 2 * len) {
+            throw new IndexOutOfBoundsException(String.format("no room for %d characters at %d in an array of %d", 2 * len, outOff, out.length));
+        }
+        for (int i = 0; i < len; i++) {
+            int b = in[off + i] & 0xFF;
+            out[outOff + 2 * i] = DIGITS[b >>> 4];
+            out[outOff + 2 * i + 1] = DIGITS[b & 0x0F];
+        }
+        return 2 * len;
+    }
+
+    public static String encode(byte[] in, int off, int len) {
+        char[] out = new char[2 * len];
+        encode(in, off, len, out, 0);
+        return new String(out);
+    }
+
+    public static String encode(byte[] in) {
+        return encode(in, 0, in.length);
+    }
+
+    /**
+     * Append the two hex digits of b
+     */
+    public static void append(StringBuilder out, byte b) {
+        out.append(DIGITS[(b >>> 4) & 0x0F]).append(DIGITS[b & 0x0F]);
+    }
+
+    /**
+     * Decode the hex digits in[off..off + len), either case, to out starting at outOff
+     *
+     * @return Number of bytes written, len / 2
+     * @throws IllegalArgumentException if len is odd or a character is not a hex digit
+     */
+    public static int decode(CharSequence in, int off, int len, byte[] out, int outOff) {
+        if (off < 0 || len < 0 || off > in.length() - len) {
+            throw new IndexOutOfBoundsException(String.format("range %d + %d outside a string of %d", off, len, in.length()));
+        }
+        if ((len & 1) != 0) {
+            throw new IllegalArgumentException(String.format("odd number of hex digits: %d", len));
+        }
+        if (outOff < 0 || outOff > out.length - len / 2) {
+            throw new IndexOutOfBoundsException(String.format("no room for %d bytes at %d in an array of %d", len / 2, outOff, out.length));
+        }
+        for (int i = 0; i < len; i += 2) {
+            out[outOff + i / 2] = (byte) (digit(in, off + i) << 4 | digit(in, off + i + 1));
+        }
+        return len / 2;
+    }
+
+    public static byte[] decode(CharSequence in) {
+        byte[] out = new byte[in.length() / 2];
+        decode(in, 0, in.length(), out, 0);
+        return out;
+    }
+
+    private static int digit(CharSequence in, int index) {
+        char c = in.charAt(index);
+        int value = c < VALUES.length ? VALUES[c] : -1;
+        if (value < 0) {
+            throw new IllegalArgumentException(String.format("not a hex digit at %d: '%c'", index, c));
+        }
+        return value;
+    }
+}
@@ -1,13 +1,15 @@
 package com.iri.utils.crypto.ellipticcurve.utils;
 import java.math.BigInteger;
-import java.security.SecureRandom;
-import java.util.Random;
 
 
 public class RandomInteger {
 
+    /**
+     * @param start Smallest value that can be returned
+     * @param end Exclusive upper bound, greater than start
+     * @return Uniformly distributed value in [start, end), drawn from the pooled {@link Entropy} source
+     */
     public static BigInteger between(BigInteger start, BigInteger end) {
-        Random random = new SecureRandom();
-        return new BigInteger(end.toByteArray().length * 8 - 1, random).abs().add(start);
+        return Entropy.below(end.subtract(start)).add(start);
     }
 }
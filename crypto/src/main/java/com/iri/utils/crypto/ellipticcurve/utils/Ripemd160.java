@@ -8,18 +8,25 @@
 
 package com.iri.utils.crypto.ellipticcurve.utils;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import static java.lang.Integer.rotateLeft;
 
 
 /**
- * Computes the RIPEMD-160 hash of an array of bytes. Not instantiable.
+ * Computes the RIPEMD-160 hash of a sequence of bytes. Instances hash incrementally and
+ * can be reused after {@link #digest(byte[], int)} or {@link #reset()}; they allocate
+ * nothing after construction. Instances are not thread-safe.
+ * @see Ripemd160Provider
  */
 public final class Ripemd160 {
 	
 	private static final int BLOCK_LEN = 64;  // In bytes
 	
+	/** The length of a hash in bytes. */
+	public static final int HASH_LEN = 20;
+	
 	
 	
 	/*---- Static functions ----*/
@@ -32,76 +39,194 @@ public final class Ripemd160 {
 	 * @throws NullPointerException if the message is {@code null}
 	 */
 	public static byte[] getHash(byte[] msg) {
-		// Compress whole message blocks
-
-		int[] state = {0x67452301, 0xEFCDAB89, 0x98BADCFE, 0x10325476, 0xC3D2E1F0};
-		int off = msg.length / BLOCK_LEN * BLOCK_LEN;
-		compress(state, msg, off);
+		Ripemd160 md = new Ripemd160();
+		md.update(msg, 0, msg.length);
+		byte[] result = new byte[HASH_LEN];
+		md.digest(result, 0);
+		return result;
+	}
+	
+	
+	
+	/*---- Instance fields ----*/
+	
+	private final int[] state = new int[5];
+	private final int[] schedule = new int[16];
+	private final byte[] block = new byte[BLOCK_LEN];
+	private int blockLen;  // Bytes buffered in block, always less than BLOCK_LEN
+	private long length;   // Total bytes hashed since the last reset
+	
+	
+	
+	/*---- Constructor ----*/
+	
+	/**
+	 * Constructs a hasher in the initial state, ready to take the first bytes of a message.
+	 */
+	public Ripemd160() {
+		reset();
+	}
+	
+	
+	
+	/*---- Instance methods ----*/
+	
+	/**
+	 * Discards any bytes given so far and starts a new message.
+	 */
+	public void reset() {
+		state[0] = 0x67452301;
+		state[1] = 0xEFCDAB89;
+		state[2] = 0x98BADCFE;
+		state[3] = 0x10325476;
+		state[4] = 0xC3D2E1F0;
+		blockLen = 0;
+		length = 0;
+	}
+	
+	
+	/**
+	 * Appends one byte to the message.
+	 * @param b the byte to append
+	 */
+	public void update(byte b) {
+		block[blockLen] = b;
+		blockLen++;
+		length++;
+		if (blockLen == BLOCK_LEN) {
+			compress(block, 0);
+			blockLen = 0;
+		}
+	}
+	
+	
+	/**
+	 * Appends the specified range of bytes to the message.
+	 * @param b the array holding the bytes
+	 * @param off the index of the first byte to append
+	 * @param len the number of bytes to append
+	 * @throws NullPointerException if the array is {@code null}
+	 * @throws IndexOutOfBoundsException if the range is outside the array
+	 */
+	public void update(byte[] b, int off, int len) {
+		if (off < 0 || len < 0 || off > b.length - len)
+			throw new IndexOutOfBoundsException();
+		length += len;
+		if (blockLen > 0) {
+			int n = Math.min(len, BLOCK_LEN - blockLen);
+			System.arraycopy(b, off, block, blockLen, n);
+			blockLen += n;
+			off += n;
+			len -= n;
+			if (blockLen < BLOCK_LEN)
+				return;
+			compress(block, 0);
+			blockLen = 0;
+		}
+		// Whole blocks straight from the caller's array
+		for (; len >= BLOCK_LEN; off += BLOCK_LEN, len -= BLOCK_LEN)
+			compress(b, off);
+		System.arraycopy(b, off, block, 0, len);
+		blockLen = len;
+	}
+	
+	
+	/**
+	 * Appends the remaining bytes of the specified buffer to the message,
+	 * moving the buffer's position to its limit.
+	 * @param b the buffer holding the bytes
+	 * @throws NullPointerException if the buffer is {@code null}
+	 */
+	public void update(ByteBuffer b) {
+		if (b.hasArray()) {
+			int len = b.remaining();
+			update(b.array(), b.arrayOffset() + b.position(), len);
+			b.position(b.position() + len);
+		} else {
+			while (b.hasRemaining()) {
+				int n = Math.min(b.remaining(), BLOCK_LEN - blockLen);
+				b.get(block, blockLen, n);
+				blockLen += n;
+				length += n;
+				if (blockLen == BLOCK_LEN) {
+					compress(block, 0);
+					blockLen = 0;
+				}
+			}
+		}
+	}
+	
+	
+	/**
+	 * Finishes the message, writes its 20-byte hash to out[off .. off + 20)
+	 * and resets this hasher for the next message.
+	 * @param out the array to write the hash to
+	 * @param off the index to write the first byte of the hash at
+	 * @throws NullPointerException if the array is {@code null}
+	 * @throws IndexOutOfBoundsException if the hash does not fit at that index
+	 */
+	public void digest(byte[] out, int off) {
+		if (off < 0 || off > out.length - HASH_LEN)
+			throw new IndexOutOfBoundsException();
 		
-		// Final blocks, padding, and length
-		byte[] block = new byte[BLOCK_LEN];
-		System.arraycopy(msg, off, block, 0, msg.length - off);
-		off = msg.length % block.length;
-		block[off] = (byte)0x80;
-		off++;
-		if (off + 8 > block.length) {
-			compress(state, block, block.length);
-			Arrays.fill(block, (byte)0);
+		// Padding and length
+		long bitLength = length << 3;
+		block[blockLen] = (byte)0x80;
+		blockLen++;
+		if (blockLen + 8 > BLOCK_LEN) {
+			Arrays.fill(block, blockLen, BLOCK_LEN, (byte)0);
+			compress(block, 0);
+			blockLen = 0;
 		}
-		long len = (long)msg.length << 3;
+		Arrays.fill(block, blockLen, BLOCK_LEN - 8, (byte)0);
 		for (int i = 0; i < 8; i++)
-			block[block.length - 8 + i] = (byte)(len >>> (i * 8));
-		compress(state, block, block.length);
+			block[BLOCK_LEN - 8 + i] = (byte)(bitLength >>> (i * 8));
+		compress(block, 0);
 		
 		// Int32 array to bytes in little endian
-		byte[] result = new byte[state.length * 4];
-		for (int i = 0; i < result.length; i++)
-			result[i] = (byte)(state[i / 4] >>> (i % 4 * 8));
-		return result;
+		for (int i = 0; i < HASH_LEN; i++)
+			out[off + i] = (byte)(state[i / 4] >>> (i % 4 * 8));
+		reset();
 	}
 	
 	
 	
 	/*---- Private functions ----*/
 	
-	private static void compress(int[] state, byte[] blocks, int len) {
-		if (len % BLOCK_LEN != 0)
-			throw new IllegalArgumentException();
-		for (int i = 0; i < len; i += BLOCK_LEN) {
-			
-			// Message schedule
-			int[] schedule = new int[16];
-			for (int j = 0; j < BLOCK_LEN; j++)
-				schedule[j / 4] |= (blocks[i + j] & 0xFF) << (j % 4 * 8);
-			
-			// The 80 rounds
-			int al = state[0], ar = state[0];
-			int bl = state[1], br = state[1];
-			int cl = state[2], cr = state[2];
-			int dl = state[3], dr = state[3];
-			int el = state[4], er = state[4];
-			for (int j = 0; j < 80; j++) {
-				int temp;
-				temp = rotateLeft(al + f(j, bl, cl, dl) + schedule[RL[j]] + KL[j / 16], SL[j]) + el;
-				al = el;
-				el = dl;
-				dl = rotateLeft(cl, 10);
-				cl = bl;
-				bl = temp;
-				temp = rotateLeft(ar + f(79 - j, br, cr, dr) + schedule[RR[j]] + KR[j / 16], SR[j]) + er;
-				ar = er;
-				er = dr;
-				dr = rotateLeft(cr, 10);
-				cr = br;
-				br = temp;
-			}
-			int temp = state[1] + cl + dr;
-			state[1] = state[2] + dl + er;
-			state[2] = state[3] + el + ar;
-			state[3] = state[4] + al + br;
-			state[4] = state[0] + bl + cr;
-			state[0] = temp;
+	private void compress(byte[] b, int off) {
+		// Message schedule
+		for (int j = 0; j < 16; j++) {
+			int k = off + j * 4;
+			schedule[j] = (b[k] & 0xFF) | (b[k + 1] & 0xFF) << 8 | (b[k + 2] & 0xFF) << 16 | b[k + 3] << 24;
 		}
+		
+		// The 80 rounds
+		int al = state[0], ar = state[0];
+		int bl = state[1], br = state[1];
+		int cl = state[2], cr = state[2];
+		int dl = state[3], dr = state[3];
+		int el = state[4], er = state[4];
+		for (int j = 0; j < 80; j++) {
+			int temp;
+			temp = rotateLeft(al + f(j, bl, cl, dl) + schedule[RL[j]] + KL[j / 16], SL[j]) + el;
+			al = el;
+			el = dl;
+			dl = rotateLeft(cl, 10);
+			cl = bl;
+			bl = temp;
+			temp = rotateLeft(ar + f(79 - j, br, cr, dr) + schedule[RR[j]] + KR[j / 16], SR[j]) + er;
+			ar = er;
+			er = dr;
+			dr = rotateLeft(cr, 10);
+			cr = br;
+			br = temp;
+		}
+		int temp = state[1] + cl + dr;
+		state[1] = state[2] + dl + er;
+		state[2] = state[3] + el + ar;
+		state[3] = state[4] + al + br;
+		state[4] = state[0] + bl + cr;
+		state[0] = temp;
 	}
 	
 	
@@ -148,10 +273,4 @@ public final class Ripemd160 {
 		15,  5,  8, 11, 14, 14,  6, 14,  6,  9, 12,  9, 12,  5, 15,  8,
 		 8,  5, 12,  9, 12,  5, 14,  6,  8, 13,  6,  5, 15, 13, 11, 11};
 	
-	
-	
-	/*---- Miscellaneous ----*/
-	
-	private Ripemd160() {}  // Not instantiable
-	
 }
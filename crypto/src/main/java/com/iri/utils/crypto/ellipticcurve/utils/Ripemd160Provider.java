@@ -0,0 +1,92 @@
+package com.iri.utils.crypto.ellipticcurve.utils;
+
+import java.nio.ByteBuffer;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.MessageDigestSpi;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.security.Security;
+
+/**
+ * JCA provider offering {@link Ripemd160} as the "RIPEMD160" message digest (alias "RIPEMD-160"), which
+ * the JDK itself does not ship.
+ * <p>
+ * The provider does not need to be installed: pass it to {@link MessageDigest#getInstance(String, Provider)},
+ * or use {@link #newDigest()}. Calling {@link Security#addProvider} with it works as well.
+ */
+public final class Ripemd160Provider extends Provider {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String NAME = "IriRipemd160";
+    public static final String ALGORITHM = "RIPEMD160";
+
+    private static final Ripemd160Provider INSTANCE = new Ripemd160Provider();
+
+    public Ripemd160Provider() {
+        super(NAME, 1.0, "RIPEMD-160 message digest");
+        put("MessageDigest." + ALGORITHM, DigestSpi.class.getName());
+        put("Alg.Alias.MessageDigest.RIPEMD-160", ALGORITHM);
+    }
+
+    /**
+     * @return A new RIPEMD-160 MessageDigest from this provider
+     */
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM, INSTANCE);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("RIPEMD160 is not registered with its own provider", e);
+        }
+    }
+
+    /**
+     * Service provider behind the MessageDigest; every call is forwarded to one reused {@link Ripemd160}
+     */
+    public static final class DigestSpi extends MessageDigestSpi {
+
+        private final Ripemd160 ripemd160 = new Ripemd160();
+
+        @Override
+        protected int engineGetDigestLength() {
+            return Ripemd160.HASH_LEN;
+        }
+
+        @Override
+        protected void engineUpdate(byte input) {
+            ripemd160.update(input);
+        }
+
+        @Override
+        protected void engineUpdate(byte[] input, int offset, int len) {
+            ripemd160.update(input, offset, len);
+        }
+
+        @Override
+        protected void engineUpdate(ByteBuffer input) {
+            ripemd160.update(input);
+        }
+
+        @Override
+        protected byte[] engineDigest() {
+            byte[] hash = new byte[Ripemd160.HASH_LEN];
+            ripemd160.digest(hash, 0);
+            return hash;
+        }
+
+        @Override
+        protected int engineDigest(byte[] buf, int offset, int len) throws DigestException {
+            if (len < Ripemd160.HASH_LEN) {
+                throw new DigestException(String.format("output buffer too short: %d bytes, need %d", len, Ripemd160.HASH_LEN));
+            }
+            ripemd160.digest(buf, offset);
+            return Ripemd160.HASH_LEN;
+        }
+
+        @Override
+        protected void engineReset() {
+            ripemd160.reset();
+        }
+    }
+}
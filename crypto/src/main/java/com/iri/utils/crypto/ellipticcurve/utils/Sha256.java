@@ -0,0 +1,186 @@
+package com.iri.utils.crypto.ellipticcurve.utils;
+
+import java.util.Arrays;
+
+/**
+ * Incremental SHA-256 whose state can be copied.
+ * <p>
+ * A copy taken after hashing a common prefix is a midstate: restoring it with {@link #Sha256(Sha256)} or
+ * {@link #set(Sha256)} and appending the rest gives the hash of prefix and rest without hashing the prefix
+ * again. An instance allocates nothing after construction, and {@link #doubleDigest(byte[], int)} feeds the
+ * first hash straight back into the same instance. Instances are not thread-safe.
+ */
+public final class Sha256 {
+
+    public static final int HASH_LEN = 32;
+
+    private static final int BLOCK_LEN = 64;
+
+    private static final int[] K = {
+        0x428a2f98, 0x71374491, 0xb5c0fbcf, 0xe9b5dba5, 0x3956c25b, 0x59f111f1, 0x923f82a4, 0xab1c5ed5,
+        0xd807aa98, 0x12835b01, 0x243185be, 0x550c7dc3, 0x72be5d74, 0x80deb1fe, 0x9bdc06a7, 0xc19bf174,
+        0xe49b69c1, 0xefbe4786, 0x0fc19dc6, 0x240ca1cc, 0x2de92c6f, 0x4a7484aa, 0x5cb0a9dc, 0x76f988da,
+        0x983e5152, 0xa831c66d, 0xb00327c8, 0xbf597fc7, 0xc6e00bf3, 0xd5a79147, 0x06ca6351, 0x14292967,
+        0x27b70a85, 0x2e1b2138, 0x4d2c6dfc, 0x53380d13, 0x650a7354, 0x766a0abb, 0x81c2c92e, 0x92722c85,
+        0xa2bfe8a1, 0xa81a664b, 0xc24b8b70, 0xc76c51a3, 0xd192e819, 0xd6990624, 0xf40e3585, 0x106aa070,
+        0x19a4c116, 0x1e376c08, 0x2748774c, 0x34b0bcb5, 0x391c0cb3, 0x4ed8aa4a, 0x5b9cca4f, 0x682e6ff3,
+        0x748f82ee, 0x78a5636f, 0x84c87814, 0x8cc70208, 0x90befffa, 0xa4506ceb, 0xbef9a3f7, 0xc67178f2};
+
+    private final int[] state = new int[8];
+    private final int[] schedule = new int[64];
+    private final byte[] block = new byte[BLOCK_LEN];
+    // bytes buffered in block, always less than BLOCK_LEN, and total bytes since the last reset
+    private int blockLen;
+    private long length;
+
+    public Sha256() {
+        reset();
+    }
+
+    /**
+     * @param midstate Hasher whose state, including any buffered bytes, this one starts from
+     */
+    public Sha256(Sha256 midstate) {
+        set(midstate);
+    }
+
+    /**
+     * Restore the state of another hasher into this one
+     */
+    public Sha256 set(Sha256 midstate) {
+        System.arraycopy(midstate.state, 0, state, 0, state.length);
+        System.arraycopy(midstate.block, 0, block, 0, midstate.blockLen);
+        blockLen = midstate.blockLen;
+        length = midstate.length;
+        return this;
+    }
+
+    public void reset() {
+        state[0] = 0x6a09e667;
+        state[1] = 0xbb67ae85;
+        state[2] = 0x3c6ef372;
+        state[3] = 0xa54ff53a;
+        state[4] = 0x510e527f;
+        state[5] = 0x9b05688c;
+        state[6] = 0x1f83d9ab;
+        state[7] = 0x5be0cd19;
+        blockLen = 0;
+        length = 0;
+    }
+
+    public void update(byte b) {
+        block[blockLen++] = b;
+        length++;
+        if (blockLen == BLOCK_LEN) {
+            compress(block, 0);
+            blockLen = 0;
+        }
+    }
+
+    public void update(byte[] b, int off, int len) {
+        if (off < 0 || len < 0 || off > b.length - len) {
+            throw new IndexOutOfBoundsException(String.format("range %d + %d outside an array of %d", off, len, b.length));
+        }
+        length += len;
+        if (blockLen > 0) {
+            int n = java.lang.Math.min(len, BLOCK_LEN - blockLen);
+            System.arraycopy(b, off, block, blockLen, n);
+            blockLen += n;
+            off += n;
+            len -= n;
+            if (blockLen < BLOCK_LEN) {
+                return;
+            }
+            compress(block, 0);
+            blockLen = 0;
+        }
+        for (; len >= BLOCK_LEN; off += BLOCK_LEN, len -= BLOCK_LEN) {
+            compress(b, off);
+        }
+        System.arraycopy(b, off, block, 0, len);
+        blockLen = len;
+    }
+
+    /**
+     * Finish the message, write its hash to out[off..off + 32) and reset for the next message
+     */
+    public void digest(byte[] out, int off) {
+        if (off < 0 || off > out.length - HASH_LEN) {
+            throw new IndexOutOfBoundsException(String.format("no room for %d bytes at %d in an array of %d", HASH_LEN, off, out.length));
+        }
+        long bitLength = length << 3;
+        block[blockLen++] = (byte) 0x80;
+        if (blockLen > BLOCK_LEN - 8) {
+            Arrays.fill(block, blockLen, BLOCK_LEN, (byte) 0);
+            compress(block, 0);
+            blockLen = 0;
+        }
+        Arrays.fill(block, blockLen, BLOCK_LEN - 8, (byte) 0);
+        for (int i = 0; i < 8; i++) {
+            block[BLOCK_LEN - 1 - i] = (byte) (bitLength >>> (8 * i));
+        }
+        compress(block, 0);
+        for (int i = 0; i < 8; i++) {
+            int word = state[i];
+            out[off + 4 * i] = (byte) (word >>> 24);
+            out[off + 4 * i + 1] = (byte) (word >>> 16);
+            out[off + 4 * i + 2] = (byte) (word >>> 8);
+            out[off + 4 * i + 3] = (byte) word;
+        }
+        reset();
+    }
+
+    public byte[] digest() {
+        byte[] hash = new byte[HASH_LEN];
+        digest(hash, 0);
+        return hash;
+    }
+
+    /**
+     * Write SHA-256 of the SHA-256 of the message to out[off..off + 32) and reset for the next message
+     */
+    public void doubleDigest(byte[] out, int off) {
+        digest(out, off);
+        update(out, off, HASH_LEN);
+        digest(out, off);
+    }
+
+    private void compress(byte[] b, int off) {
+        int[] w = schedule;
+        for (int i = 0; i < 16; i++) {
+            int k = off + 4 * i;
+            w[i] = b[k] << 24 | (b[k + 1] & 0xFF) << 16 | (b[k + 2] & 0xFF) << 8 | (b[k + 3] & 0xFF);
+        }
+        for (int i = 16; i < 64; i++) {
+            int s0 = Integer.rotateRight(w[i - 15], 7) ^ Integer.rotateRight(w[i - 15], 18) ^ (w[i - 15] >>> 3);
+            int s1 = Integer.rotateRight(w[i - 2], 17) ^ Integer.rotateRight(w[i - 2], 19) ^ (w[i - 2] >>> 10);
+            w[i] = w[i - 16] + s0 + w[i - 7] + s1;
+        }
+        int a = state[0], b0 = state[1], c = state[2], d = state[3];
+        int e = state[4], f = state[5], g = state[6], h = state[7];
+        for (int i = 0; i < 64; i++) {
+            int s1 = Integer.rotateRight(e, 6) ^ Integer.rotateRight(e, 11) ^ Integer.rotateRight(e, 25);
+            int ch = (e & f) ^ (~e & g);
+            int t1 = h + s1 + ch + K[i] + w[i];
+            int s0 = Integer.rotateRight(a, 2) ^ Integer.rotateRight(a, 13) ^ Integer.rotateRight(a, 22);
+            int maj = (a & b0) ^ (a & c) ^ (b0 & c);
+            int t2 = s0 + maj;
+            h = g;
+            g = f;
+            f = e;
+            e = d + t1;
+            d = c;
+            c = b0;
+            b0 = a;
+            a = t1 + t2;
+        }
+        state[0] += a;
+        state[1] += b0;
+        state[2] += c;
+        state[3] += d;
+        state[4] += e;
+        state[5] += f;
+        state[6] += g;
+        state[7] += h;
+    }
+}
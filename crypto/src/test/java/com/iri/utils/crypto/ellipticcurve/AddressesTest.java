@@ -0,0 +1,78 @@
+package com.iri.utils.crypto.ellipticcurve;
+import com.iri.utils.crypto.ellipticcurve.utils.Base58Check;
+import com.iri.utils.crypto.ellipticcurve.utils.BinaryAscii;
+import com.iri.utils.crypto.ellipticcurve.utils.Hashes;
+import io.ipfs.multibase.Base58;
+import org.junit.Test;
+import java.math.BigInteger;
+import java.util.Arrays;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+
+public class AddressesTest {
+
+    // private key 1
+    private static final String COMPRESSED = "0279be667ef9dcbbac55a06295ce870b07029bfcdb2dce28d959f2815b16f81798";
+    private static final String UNCOMPRESSED = "0479be667ef9dcbbac55a06295ce870b07029bfcdb2dce28d959f2815b16f81798"
+            + "483ada7726a3c4655da4fbfc0e1108a8fd17b448a68554199c47d08ffb10d4b8";
+
+    @Test
+    public void testKnownAddresses() {
+        byte[] compressed = BinaryAscii.binaryFromHex(COMPRESSED);
+        byte[] uncompressed = BinaryAscii.binaryFromHex(UNCOMPRESSED);
+        assertEquals("1BgGZ9tcN4rm9KBzDn7KprQz87SZ26SAMH", Addresses.fromSec1(compressed, 0, compressed.length));
+        assertEquals("1EHNa6Q4Jz2uvNExL497mE43ikXhwF6kZm", Addresses.fromSec1(uncompressed, 0, uncompressed.length));
+
+        PublicKey publicKey = new PrivateKey(Curve.secp256k1, BigInteger.ONE).publicKey();
+        assertEquals("1BgGZ9tcN4rm9KBzDn7KprQz87SZ26SAMH", Addresses.fromPublicKey(publicKey, true));
+        assertEquals("1EHNa6Q4Jz2uvNExL497mE43ikXhwF6kZm", Addresses.fromPublicKey(publicKey, false));
+    }
+
+    @Test
+    public void testBatchMatchesSingle() {
+        PublicKey[] keys = new PublicKey[5];
+        byte[][] encoded = new byte[keys.length][];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new PrivateKey(Curve.secp256k1, BigInteger.valueOf(1000 + i)).publicKey();
+            encoded[i] = new byte[65];
+            Addresses.encodeSec1(keys[i].point, false, encoded[i], 0);
+        }
+        String[] compressed = Addresses.fromPublicKeys(keys, true);
+        String[] uncompressed = Addresses.fromSec1(encoded);
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(EcdsaUtils.generateAddress(keys[i], true), compressed[i]);
+            assertEquals(Addresses.fromPublicKey(keys[i], false), uncompressed[i]);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsBadEncoding() {
+        byte[] key = BinaryAscii.binaryFromHex(COMPRESSED);
+        key[0] = 4;
+        Addresses.fromSec1(key, 0, key.length);
+    }
+
+    @Test
+    public void testBase58() {
+        byte[][] inputs = {new byte[0], {0}, {0, 0, 1}, {(byte) 0xFF, 0, 0x3A}, BinaryAscii.binaryFromHex(UNCOMPRESSED)};
+        for (byte[] input : inputs) {
+            char[] out = new char[Base58Check.maxEncodedLength(input.length) + 2];
+            int len = Base58Check.encode(input, 0, input.length, out, 2);
+            assertEquals(Base58.encode(input), new String(out, 2, len));
+        }
+        byte[] payload = new byte[21];
+        System.arraycopy(Hashes.hash160(BinaryAscii.binaryFromHex(COMPRESSED)), 0, payload, 1, 20);
+        assertEquals("1BgGZ9tcN4rm9KBzDn7KprQz87SZ26SAMH", Base58Check.encode(payload));
+    }
+
+    @Test
+    public void testInPlaceHashes() {
+        byte[] key = BinaryAscii.binaryFromHex(COMPRESSED);
+        byte[] out = new byte[3 + 32];
+        Hashes.hash160(key, 0, key.length, out, 3);
+        assertEquals("751e76e8199196d454941c45d1b3a323f1433bd6", BinaryAscii.hexFromBinary(Arrays.copyOfRange(out, 3, 23)));
+        Hashes.doubleSha256(key, 0, key.length, out, 3);
+        assertArrayEquals(Hashes.doubleSha256(key), Arrays.copyOfRange(out, 3, 35));
+    }
+}
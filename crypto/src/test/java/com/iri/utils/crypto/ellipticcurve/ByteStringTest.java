@@ -0,0 +1,75 @@
+package com.iri.utils.crypto.ellipticcurve;
+import com.iri.utils.crypto.ellipticcurve.utils.BinaryAscii;
+import com.iri.utils.crypto.ellipticcurve.utils.ByteString;
+import com.iri.utils.crypto.ellipticcurve.utils.Der;
+import org.junit.Test;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+
+public class ByteStringTest {
+
+    @Test
+    public void testSubstringIsAView() {
+        byte[] backing = {1, 2, 3, 4, 5};
+        ByteString string = new ByteString(backing);
+        ByteString middle = string.substring(1, 4);
+        assertEquals("020304", BinaryAscii.hexFromBinary(middle));
+        assertEquals("0304", BinaryAscii.hexFromBinary(middle.substring(1)));
+        assertEquals(4, middle.getShort(2));
+
+        ByteBuffer buffer = middle.asByteBuffer();
+        assertEquals(3, buffer.remaining());
+        assertEquals(2, buffer.get(0));
+
+        byte[] out = new byte[5];
+        middle.copyTo(out, 2);
+        assertArrayEquals(new byte[]{0, 0, 2, 3, 4}, out);
+    }
+
+    @Test
+    public void testReplaceDoesNotLeakIntoOtherViews() {
+        ByteString string = new ByteString(new byte[]{1, 2, 3});
+        ByteString tail = string.substring(1);
+        tail.replace(0, (byte) 9);
+        assertEquals("010203", BinaryAscii.hexFromBinary(string));
+        assertEquals("0903", BinaryAscii.hexFromBinary(tail));
+    }
+
+    @Test
+    public void testNegativeEndStaysInsideTheSlice() {
+        byte[] backing = {1, 2, 3, 4, 5, 6};
+        ByteString slice = ByteString.wrap(backing, 1, 3);
+        assertEquals("0203", BinaryAscii.hexFromBinary(slice.substring(0, -1)));
+        assertEquals("03", BinaryAscii.hexFromBinary(slice.substring(1, -1)));
+        assertEquals(0, slice.substring(0, -3).length());
+        assertEquals(0, slice.substring(0, -10).length());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testViewIsBounded() {
+        new ByteString(new byte[]{1, 2, 3}).substring(0, 2).getShort(2);
+    }
+
+    @Test
+    public void testBuilder() {
+        ByteString.Builder builder = new ByteString.Builder(1);
+        builder.append(0x30).append(new byte[]{1, 2}).append(new ByteString(new byte[]{7, 8, 9}).substring(1));
+        ByteString built = builder.build();
+        builder.append(0xFF);
+        assertEquals("3001020809", BinaryAscii.hexFromBinary(built));
+        assertEquals(6, builder.length());
+    }
+
+    @Test
+    public void testDerEncodings() {
+        assertEquals("7f", BinaryAscii.hexFromBinary(Der.encodeLength(0x7f)));
+        assertEquals("821234", BinaryAscii.hexFromBinary(Der.encodeLength(0x1234)));
+        assertEquals("020100", BinaryAscii.hexFromBinary(Der.encodeInteger(BigInteger.ZERO)));
+        assertEquals("02020080", BinaryAscii.hexFromBinary(Der.encodeInteger(BigInteger.valueOf(0x80))));
+        assertEquals("06072a8648ce3d0201", BinaryAscii.hexFromBinary(Der.encodeOid(1, 2, 840, 10045, 2, 1)));
+        assertEquals("300602010102017f", BinaryAscii.hexFromBinary(Der.encodeSequence(Der.encodeInteger(BigInteger.ONE), Der.encodeInteger(BigInteger.valueOf(127)))));
+    }
+}
@@ -0,0 +1,100 @@
+package com.iri.utils.crypto.ellipticcurve;
+import com.iri.utils.crypto.ellipticcurve.utils.BinaryAscii;
+import org.junit.Test;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class CompactSignatureTest {
+
+    @Test
+    public void testLayout() {
+        // r has leading zero bytes, s has its top bit set
+        Signature signature = new Signature(new BigInteger("01ff", 16), new BigInteger("80" + repeat("00", 31), 16));
+        byte[] bytes = CompactSignature.of(signature).toByteArray();
+        assertEquals(CompactSignature.LENGTH, bytes.length);
+        assertEquals(repeat("00", 30) + "01ff" + "80" + repeat("00", 31), BinaryAscii.hexFromBinary(bytes));
+
+        Signature parsed = CompactSignature.wrap(bytes, 0).toSignature();
+        assertEquals(signature.r, parsed.r);
+        assertEquals(signature.s, parsed.s);
+    }
+
+    @Test
+    public void testColumnarArray() {
+        PrivateKey privateKey = new PrivateKey();
+        Signature[] signatures = new Signature[3];
+        byte[] column = new byte[signatures.length * CompactSignature.LENGTH];
+        for (int i = 0; i < signatures.length; i++) {
+            signatures[i] = Ecdsa.sign("message " + i, privateKey);
+            CompactSignature.wrap(column, i * CompactSignature.LENGTH).set(signatures[i]);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(column);
+        for (int i = 0; i < signatures.length; i++) {
+            CompactSignature compact = CompactSignature.wrap(buffer, i * CompactSignature.LENGTH);
+            assertEquals(signatures[i].r, compact.r());
+            assertEquals(signatures[i].s, compact.s());
+            assertTrue(Ecdsa.verify("message " + i, compact.toSignature(), privateKey.publicKey()));
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(70);
+        out.position(3);
+        CompactSignature.wrap(column, CompactSignature.LENGTH).writeTo(out);
+        assertEquals(3 + CompactSignature.LENGTH, out.position());
+        assertArrayEquals(Arrays.copyOfRange(column, CompactSignature.LENGTH, 2 * CompactSignature.LENGTH), Arrays.copyOfRange(out.array(), 3, 3 + CompactSignature.LENGTH));
+    }
+
+    @Test
+    public void testRecoverable() {
+        RecoverableSignature signature = new RecoverableSignature(BigInteger.valueOf(5), BigInteger.valueOf(7), 1);
+        CompactRecoverableSignature compressed = CompactRecoverableSignature.of(signature, true);
+        assertEquals(32, compressed.header());
+        assertTrue(compressed.isCompressed());
+        assertEquals(1, compressed.recoveryId());
+
+        byte[] out = new byte[CompactRecoverableSignature.LENGTH + 1];
+        CompactRecoverableSignature.of(signature, false).writeTo(out, 1);
+        CompactRecoverableSignature uncompressed = CompactRecoverableSignature.wrap(out, 1);
+        assertEquals(28, uncompressed.header());
+        assertFalse(uncompressed.isCompressed());
+        RecoverableSignature parsed = uncompressed.toSignature();
+        assertEquals(signature.r, parsed.r);
+        assertEquals(signature.s, parsed.s);
+        assertEquals(1, parsed.recoveryId);
+
+        out[1] = 35;
+        assertFalse(uncompressed.hasValidHeader());
+    }
+
+    @Test
+    public void testBounds() {
+        boolean rejected = false;
+        try {
+            CompactSignature.wrap(new byte[CompactSignature.LENGTH], 1);
+        } catch (IndexOutOfBoundsException e) {
+            rejected = true;
+        }
+        assertTrue(rejected);
+
+        rejected = false;
+        try {
+            CompactSignature.of(new Signature(BigInteger.ONE.shiftLeft(256), BigInteger.ONE));
+        } catch (IllegalArgumentException e) {
+            rejected = true;
+        }
+        assertTrue(rejected);
+    }
+
+    private static String repeat(String s, int times) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            builder.append(s);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,79 @@
+package com.iri.utils.crypto.ellipticcurve;
+import com.iri.utils.crypto.ellipticcurve.utils.BinaryAscii;
+import com.iri.utils.crypto.ellipticcurve.utils.DerReader;
+import org.junit.Test;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class DerReaderTest {
+
+    @Test
+    public void testReadsNestedElements() {
+        // SEQUENCE { INTEGER 1, OID 1.2.840.10045.2.1, [0] { OCTET STRING 0102 }, BIT STRING 00 04ff }
+        byte[] der = BinaryAscii.binaryFromHex("3016" + "020101" + "06072a8648ce3d0201" + "a003040102" + "03030004ff");
+        DerReader reader = new DerReader(der);
+        DerReader sequence = reader.readSequence();
+        reader.expectEnd("test");
+        assertEquals(BigInteger.ONE, sequence.readInteger());
+        assertArrayEquals(new long[]{1, 2, 840, 10045, 2, 1}, sequence.readOid());
+        DerReader tagged = sequence.readConstructed(0);
+        ByteBuffer octets = tagged.readOctetString();
+        assertEquals(1, octets.remaining());
+        assertEquals(2, octets.get());
+        tagged.expectEnd("tagged");
+        ByteBuffer bits = sequence.readBitString();
+        assertEquals(2, bits.remaining());
+        sequence.expectEnd("sequence");
+    }
+
+    @Test
+    public void testSignatureRoundTrip() {
+        Signature signature = new Signature(new BigInteger("80" + repeat("11", 31), 16), BigInteger.valueOf(127));
+        byte[] der = signature.toDer().getBytes();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(der.length + 3);
+        buffer.put(new byte[]{9, 9, 9}).put(der).position(3);
+        Signature parsed = Signature.fromDer(buffer);
+        assertEquals(signature.r, parsed.r);
+        assertEquals(signature.s, parsed.s);
+        assertEquals(3, buffer.position());
+    }
+
+    @Test
+    public void testRejectsMalformedInput() {
+        String[] malformed = {
+            "",
+            "3006020101020101ff",      // trailing junk
+            "3007020101020101",        // length past the end
+            "3006020101020201",        // inner length past the end of the sequence
+            "3080020101020101",        // indefinite length
+            "3006020101020180",        // negative integer
+            "3106020101020101",        // wrong tag
+            "30850000000006020101020101", // five length bytes
+            "30080202000102020001",    // integers with a redundant leading zero
+            "308106020101020101",      // long form for a short length
+            "30820006020101020101",    // length field with a leading zero byte
+        };
+        for (String hex : malformed) {
+            byte[] der = hex.isEmpty() ? new byte[0] : BinaryAscii.binaryFromHex(hex);
+            boolean rejected = false;
+            try {
+                Signature.fromDer(ByteBuffer.wrap(der));
+            } catch (RuntimeException e) {
+                rejected = true;
+            }
+            assertTrue("accepted " + hex, rejected);
+        }
+    }
+
+    private static String repeat(String s, int times) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            builder.append(s);
+        }
+        return builder.toString();
+    }
+}
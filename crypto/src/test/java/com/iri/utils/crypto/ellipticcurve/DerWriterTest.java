@@ -0,0 +1,65 @@
+package com.iri.utils.crypto.ellipticcurve;
+import com.iri.utils.crypto.ellipticcurve.utils.BinaryAscii;
+import com.iri.utils.crypto.ellipticcurve.utils.DerWriter;
+import org.junit.Test;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+
+public class DerWriterTest {
+
+    @Test
+    public void testIntegers() {
+        assertEquals("020100", encode(BigInteger.ZERO));
+        assertEquals("02017f", encode(BigInteger.valueOf(0x7f)));
+        assertEquals("02020080", encode(BigInteger.valueOf(0x80)));
+        assertEquals("02020100", encode(BigInteger.valueOf(0x100)));
+    }
+
+    @Test
+    public void testLongLength() {
+        byte[] out = new byte[DerWriter.elementSize(0x1234) - 0x1234];
+        new DerWriter(out, 0).writeSequence(0x1234);
+        assertEquals("30821234", BinaryAscii.hexFromBinary(out));
+        assertEquals(1, DerWriter.lengthSize(0x7f));
+        assertEquals(2, DerWriter.lengthSize(0x80));
+    }
+
+    @Test
+    public void testSignatureToDer() {
+        Signature signature = new Signature(new BigInteger("ff" + repeat("01", 31), 16), new BigInteger("7f" + repeat("02", 31), 16));
+        byte[] der = signature.toDer().getBytes();
+        assertEquals(71, signature.derLength());
+        assertEquals("3045022100ff" + repeat("01", 31) + "02207f" + repeat("02", 31), BinaryAscii.hexFromBinary(der));
+
+        byte[] out = new byte[der.length + 2];
+        assertEquals(der.length, signature.toDer(out, 2));
+        assertArrayEquals(der, Arrays.copyOfRange(out, 2, out.length));
+
+        ByteBuffer buffer = ByteBuffer.allocate(80);
+        buffer.position(5);
+        signature.toDer(buffer);
+        assertEquals(5 + der.length, buffer.position());
+
+        Signature parsed = Signature.fromDer(ByteBuffer.wrap(der));
+        assertEquals(signature.r, parsed.r);
+        assertEquals(signature.s, parsed.s);
+    }
+
+    private static String encode(BigInteger value) {
+        byte[] out = new byte[DerWriter.integerSize(value)];
+        new DerWriter(out, 0).writeInteger(value);
+        return BinaryAscii.hexFromBinary(out);
+    }
+
+    private static String repeat(String s, int times) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            builder.append(s);
+        }
+        return builder.toString();
+    }
+}
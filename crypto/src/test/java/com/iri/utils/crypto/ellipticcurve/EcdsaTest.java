@@ -1,5 +1,6 @@
 package com.iri.utils.crypto.ellipticcurve;
 import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -29,4 +30,38 @@ public class EcdsaTest {
 
         assertFalse(Ecdsa.verify(message2, signature, publicKey));
     }
+
+    @Test
+    public void testVerifyOutOfRangeSignature() {
+        PrivateKey privateKey = new PrivateKey();
+        PublicKey publicKey = privateKey.publicKey();
+        String message = "This is the right message";
+        Signature signature = Ecdsa.sign(message, privateKey);
+        java.math.BigInteger N = publicKey.curve.N;
+
+        assertFalse(Ecdsa.verify(message, new Signature(signature.r.add(N), signature.s), publicKey));
+        assertFalse(Ecdsa.verify(message, new Signature(signature.r, signature.s.add(N)), publicKey));
+        assertFalse(Ecdsa.verify(message, new Signature(java.math.BigInteger.ZERO, signature.s), publicKey));
+    }
+
+    @Test
+    public void testVerifyBatch() {
+        PrivateKey privateKey1 = new PrivateKey();
+        PrivateKey privateKey2 = new PrivateKey();
+        String message1 = "This is the right message";
+        String message2 = "This is the wrong message";
+        Signature signature1 = Ecdsa.sign(message1, privateKey1);
+        Signature signature2 = Ecdsa.sign(message2, privateKey2);
+
+        boolean[] results = Ecdsa.verifyBatch(
+                new SignedMessage(message1, signature1, privateKey1.publicKey()),
+                new SignedMessage(message2, signature2, privateKey2.publicKey()),
+                new SignedMessage(message2, signature1, privateKey1.publicKey()),
+                new SignedMessage(message1, signature1, privateKey2.publicKey()),
+                new SignedMessage(message1, new Signature(signature1.r, java.math.BigInteger.ZERO), privateKey1.publicKey()),
+                new SignedMessage(message2, signature2, privateKey2.publicKey()));
+
+        assertArrayEquals(new boolean[]{true, true, false, false, false, true}, results);
+        assertArrayEquals(new boolean[0], Ecdsa.verifyBatch());
+    }
 }
@@ -1,6 +1,7 @@
 package com.iri.utils.crypto.ellipticcurve;
 
 import com.iri.utils.crypto.ellipticcurve.utils.BinaryAscii;
+import com.iri.utils.crypto.ellipticcurve.utils.Hashes;
 import org.json.JSONObject;
 import org.junit.Assert;
 import org.junit.Test;
@@ -44,6 +45,28 @@ public class EcdsaUtilsTest {
         Assert.assertTrue(res.errMessage(), res.verifyResult());
     }
 
+    @Test
+    public void testSignRecoveryIds() throws IOException, NoSuchAlgorithmException {
+        String pk = "KxPgZSiHf4QirYmX2AGjhQ8jXNErHQoUzcbttumtQ9wShaP1tSoX";
+        String address = "1vofXj4Vf2cgJDQrbbN2Zc6gG9qmRmk96";
+        boolean[] seen = new boolean[2];
+        for (int i = 0; i < 16; i++) {
+            String message = "message " + i;
+            String sign = EcdsaUtils.sign(message, pk, address);
+            byte[] sig = com.iri.utils.crypto.ellipticcurve.utils.Base64.decode(sign);
+            Assert.assertEquals(65, sig.length);
+            seen[(sig[0] - 31) & 1] = true;
+            EcdsaUtils.ValidRes res = EcdsaUtils.verifyMessage(sign, message, address);
+            Assert.assertTrue(res.errMessage(), res.verifyResult());
+        }
+        Assert.assertTrue(seen[0] && seen[1]);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testSignWrongAddress() {
+        EcdsaUtils.sign("123456", "KxPgZSiHf4QirYmX2AGjhQ8jXNErHQoUzcbttumtQ9wShaP1tSoX", "1NZbawYVWRBnqBuVqbb8Z7CVpwsokNUSZ9");
+    }
+
     @Test
     public void testGenSkAddressPair(){
         EcdsaUtils.SecureInfo secureInfo = EcdsaUtils.generateSecureInfo();
@@ -102,4 +125,16 @@ public class EcdsaUtilsTest {
 //            System.out.println(7>>1);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSignedMessageHash() {
+        StringBuilder longMessage = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            longMessage.append((char) ('a' + i % 26));
+        }
+        for (String message : new String[]{"", "hello", longMessage.toString()}) {
+            String wrapped = (char) 0x18 + "Bitcoin Signed Message:" + '\n' + (char) message.length() + message;
+            Assert.assertArrayEquals(Hashes.doubleSha256(wrapped.getBytes()), EcdsaUtils.hashSignedMessage(message));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.iri.utils.crypto.ellipticcurve;
+import com.iri.utils.crypto.ellipticcurve.utils.Entropy;
+import com.iri.utils.crypto.ellipticcurve.utils.RandomInteger;
+import org.junit.Test;
+import java.math.BigInteger;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class EntropyTest {
+
+    @Test
+    public void testBelowCoversRange() {
+        BigInteger bound = BigInteger.valueOf(5);
+        boolean[] seen = new boolean[5];
+        for (int i = 0; i < 500; i++) {
+            BigInteger value = Entropy.below(bound);
+            assertTrue(value.signum() >= 0 && value.compareTo(bound) < 0);
+            seen[value.intValue()] = true;
+        }
+        for (boolean s : seen) {
+            assertTrue(s);
+        }
+    }
+
+    @Test
+    public void testBetween() {
+        BigInteger N = Curve.secp256k1.N;
+        for (int i = 0; i < 200; i++) {
+            BigInteger value = RandomInteger.between(BigInteger.ONE, N);
+            assertTrue(value.signum() > 0 && value.compareTo(N) < 0);
+        }
+        BigInteger start = BigInteger.valueOf(10);
+        for (int i = 0; i < 100; i++) {
+            BigInteger value = RandomInteger.between(start, BigInteger.valueOf(12));
+            assertTrue(value.equals(start) || value.equals(BigInteger.valueOf(11)));
+        }
+    }
+
+    @Test
+    public void testScalarIntoBuffer() {
+        BigInteger N = Curve.secp256k1.N;
+        byte[] out = new byte[40];
+        for (int i = 0; i < 200; i++) {
+            assertEquals(32, Entropy.scalar(N, out, 3));
+            BigInteger value = new BigInteger(1, java.util.Arrays.copyOfRange(out, 3, 35));
+            assertTrue(value.signum() > 0 && value.compareTo(N) < 0);
+        }
+        // a bound just above a power of two makes most draws rejections
+        BigInteger small = BigInteger.valueOf(257);
+        boolean sawHigh = false;
+        for (int i = 0; i < 5000; i++) {
+            Entropy.scalar(small, out, 0);
+            int value = ((out[0] & 0xFF) << 8) | (out[1] & 0xFF);
+            assertTrue(value >= 1 && value < 257);
+            sawHigh |= value == 256;
+        }
+        assertTrue(sawHigh);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBoundMustBePositive() {
+        Entropy.below(BigInteger.ZERO);
+    }
+}
@@ -0,0 +1,89 @@
+package com.iri.utils.crypto.ellipticcurve;
+import org.junit.Test;
+import java.math.BigInteger;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class FieldElementTest {
+
+    private static final BigInteger P = FieldElement.P;
+
+    private static final BigInteger[] EDGES = {
+        BigInteger.ZERO,
+        BigInteger.ONE,
+        P.subtract(BigInteger.ONE),
+        P.subtract(BigInteger.valueOf(2)),
+        BigInteger.ONE.shiftLeft(255),
+        BigInteger.ONE.shiftLeft(224).subtract(BigInteger.ONE),
+        P.shiftRight(1)
+    };
+
+    @Test
+    public void testArithmeticMatchesBigInteger() {
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            BigInteger a = i < EDGES.length ? EDGES[i] : new BigInteger(256, random).mod(P);
+            BigInteger b = i < EDGES.length ? EDGES[EDGES.length - 1 - i] : new BigInteger(256, random).mod(P);
+            FieldElement fa = FieldElement.fromBigInteger(a);
+            FieldElement fb = FieldElement.fromBigInteger(b);
+
+            assertEquals(a.add(b).mod(P), new FieldElement().add(fa, fb).toBigInteger());
+            assertEquals(a.subtract(b).mod(P), new FieldElement().sub(fa, fb).toBigInteger());
+            assertEquals(a.negate().mod(P), new FieldElement().negate(fa).toBigInteger());
+            assertEquals(a.multiply(b).mod(P), new FieldElement().mul(fa, fb).toBigInteger());
+            assertEquals(a.multiply(a).mod(P), new FieldElement().sqr(fa).toBigInteger());
+            assertEquals(a.multiply(BigInteger.valueOf(8)).mod(P), new FieldElement().mulInt(fa, 8).toBigInteger());
+        }
+    }
+
+    @Test
+    public void testChainedOperationsStayReduced() {
+        Random random = new Random(7);
+        BigInteger expected = new BigInteger(256, random).mod(P);
+        FieldElement acc = FieldElement.fromBigInteger(expected);
+        for (int i = 0; i < 500; i++) {
+            BigInteger b = new BigInteger(256, random).mod(P);
+            FieldElement fb = FieldElement.fromBigInteger(b);
+            acc.mul(acc, fb).sub(acc, fb).sqr(acc).add(acc, acc);
+            expected = expected.multiply(b).subtract(b).pow(2).shiftLeft(1).mod(P);
+        }
+        assertEquals(expected, acc.toBigInteger());
+    }
+
+    @Test
+    public void testNormalizeAndZero() {
+        FieldElement p = new FieldElement().setBytes(P.toByteArray(), 1);
+        assertTrue(p.isZero());
+        assertEquals(BigInteger.ZERO, p.toBigInteger());
+
+        BigInteger max = BigInteger.ONE.shiftLeft(256).subtract(BigInteger.ONE);
+        FieldElement fmax = new FieldElement().setBytes(max.toByteArray(), 1);
+        assertEquals(max.mod(P), fmax.toBigInteger());
+    }
+
+    @Test
+    public void testInverse() {
+        Random random = new Random(3);
+        for (int i = 0; i < 50; i++) {
+            BigInteger a = new BigInteger(256, random).mod(P);
+            FieldElement inv = new FieldElement().invertVar(FieldElement.fromBigInteger(a));
+            assertEquals(BigInteger.ONE, new FieldElement().mul(inv, FieldElement.fromBigInteger(a)).toBigInteger());
+        }
+    }
+
+    @Test
+    public void testConstantTimeInverse() {
+        Random random = new Random(15);
+        for (int i = 0; i < 50; i++) {
+            BigInteger a = new BigInteger(256, random).mod(P);
+            assertEquals(a.modInverse(P), new FieldElement().invert(FieldElement.fromBigInteger(a)).toBigInteger());
+        }
+        for (BigInteger edge : EDGES) {
+            BigInteger expected = edge.signum() == 0 ? BigInteger.ZERO : edge.modInverse(P);
+            FieldElement e = FieldElement.fromBigInteger(edge);
+            assertEquals(expected, e.invert(e).toBigInteger());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.iri.utils.crypto.ellipticcurve;
+import com.iri.utils.crypto.ellipticcurve.utils.BinaryAscii;
+import com.iri.utils.crypto.ellipticcurve.utils.Hashes;
+import org.junit.Test;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+
+public class HashesTest {
+
+    private static final byte[] ABC = "abc".getBytes();
+
+    @Test
+    public void testKnownDigests() {
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", BinaryAscii.hexFromBinary(Hashes.sha256(ABC)));
+        assertEquals("5df6e0e2761359d30a8275058e299fcc0381534545f55cf43e41983f5d4c9456", BinaryAscii.hexFromBinary(Hashes.doubleSha256(new byte[0])));
+        // compressed public key of the private key 1
+        byte[] publicKey = BinaryAscii.binaryFromHex("0279be667ef9dcbbac55a06295ce870b07029bfcdb2dce28d959f2815b16f81798");
+        assertEquals("751e76e8199196d454941c45d1b3a323f1433bd6", BinaryAscii.hexFromBinary(Hashes.hash160(publicKey)));
+    }
+
+    @Test
+    public void testByteBufferMatchesArray() {
+        ByteBuffer heap = ByteBuffer.wrap(ABC);
+        assertArrayEquals(Hashes.sha256(ABC), Hashes.sha256(heap));
+        assertEquals(heap.limit(), heap.position());
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(ABC.length);
+        direct.put(ABC).flip();
+        assertArrayEquals(Hashes.doubleSha256(ABC), Hashes.doubleSha256(direct));
+
+        assertArrayEquals(Hashes.hash160(ABC), Hashes.hash160(ByteBuffer.wrap(ABC)));
+    }
+
+    @Test
+    public void testConcurrentUse() throws InterruptedException {
+        final byte[] expected = Hashes.doubleSha256(ABC);
+        final boolean[] ok = new boolean[8];
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < ok.length; t++) {
+            final int index = t;
+            threads.add(new Thread(() -> {
+                boolean same = true;
+                for (int i = 0; i < 1000; i++) {
+                    same &= java.util.Arrays.equals(expected, Hashes.doubleSha256(ABC));
+                }
+                ok[index] = same;
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (boolean same : ok) {
+            assertEquals(true, same);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.iri.utils.crypto.ellipticcurve;
+import com.iri.utils.crypto.ellipticcurve.utils.BigEndian;
+import com.iri.utils.crypto.ellipticcurve.utils.BinaryAscii;
+import com.iri.utils.crypto.ellipticcurve.utils.Hex;
+import org.junit.Test;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class HexTest {
+
+    @Test
+    public void testEncodeDecode() {
+        byte[] bytes = {0x00, 0x0f, (byte) 0x80, (byte) 0xff, 0x5a};
+        assertEquals("000f80ff5a", Hex.encode(bytes));
+        assertArrayEquals(bytes, Hex.decode("000F80fF5a"));
+
+        char[] out = new char[12];
+        assertEquals(4, Hex.encode(bytes, 2, 2, out, 1));
+        assertEquals("80ff", new String(out, 1, 4));
+
+        byte[] decoded = new byte[4];
+        assertEquals(2, Hex.decode("xx80ffxx", 2, 4, decoded, 1));
+        assertArrayEquals(new byte[]{0, (byte) 0x80, (byte) 0xff, 0}, decoded);
+    }
+
+    @Test
+    public void testDecodeRejects() {
+        for (String hex : new String[]{"abc", "0g", "é00"}) {
+            boolean rejected = false;
+            try {
+                Hex.decode(hex);
+            } catch (IllegalArgumentException e) {
+                rejected = true;
+            }
+            assertTrue(hex, rejected);
+        }
+    }
+
+    @Test
+    public void testBigEndian() {
+        BigInteger value = new BigInteger("0102ff", 16);
+        byte[] out = new byte[6];
+        BigEndian.write(value, out, 1, 4);
+        assertArrayEquals(new byte[]{0, 0, 1, 2, (byte) 0xff, 0}, out);
+        assertEquals(value, BigEndian.toBigInteger(out, 1, 4));
+
+        ByteBuffer buffer = ByteBuffer.allocate(8);
+        BigEndian.write(value, buffer, 4, 4);
+        assertEquals(0, buffer.position());
+        assertEquals(value, BigEndian.toBigInteger(buffer, 4, 4));
+        assertEquals(BigInteger.ZERO, BigEndian.toBigInteger(buffer, 0, 4));
+
+        boolean rejected = false;
+        try {
+            BigEndian.write(value, out, 0, 2);
+        } catch (IllegalArgumentException e) {
+            rejected = true;
+        }
+        assertTrue(rejected);
+    }
+
+    @Test
+    public void testBinaryAsciiCompatibility() {
+        BigInteger value = new BigInteger("00ff01", 16);
+        assertEquals("ff01", BinaryAscii.hexFromBinary(BinaryAscii.stringFromNumber(value, 32)));
+        assertArrayEquals(new byte[]{0x0a, 0x01}, BinaryAscii.binaryFromHex("0a01"));
+        assertArrayEquals(new byte[]{0x0a, 0x01}, BinaryAscii.binaryFromHex("a01"));
+        assertEquals(value, BinaryAscii.numberFromString(new byte[]{0, (byte) 0xff, 1}));
+    }
+}
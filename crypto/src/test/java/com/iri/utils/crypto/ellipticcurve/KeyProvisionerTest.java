@@ -0,0 +1,47 @@
+package com.iri.utils.crypto.ellipticcurve;
+import org.junit.Test;
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class KeyProvisionerTest {
+
+    @Test
+    public void testPairsMatchSingleGeneration() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            List<EcdsaUtils.SecureInfo> infos = new KeyProvisioner(pool, 7).generate(30);
+            assertEquals(30, infos.size());
+            Set<String> addresses = new HashSet<>();
+            for (EcdsaUtils.SecureInfo info : infos) {
+                PrivateKey privateKey = PrivateKey.fromBase58(info.getPrivateKey());
+                assertEquals(EcdsaUtils.generateAddress(privateKey), info.getAddress());
+                assertTrue(addresses.add(info.getAddress()));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testSink() {
+        AtomicInteger count = new AtomicInteger();
+        new KeyProvisioner().generate(10L, info -> count.incrementAndGet());
+        assertEquals(10, count.get());
+        assertEquals(0, new KeyProvisioner().stream(0).count());
+    }
+
+    @Test
+    public void testShortSecretKeepsFullLength() throws Exception {
+        // a secret below 2^248 used to lose its leading zero byte in the WIF
+        PrivateKey privateKey = new PrivateKey(Curve.secp256k1, new BigInteger("00ff", 16).shiftLeft(240));
+        String wif = EcdsaUtils.convert2Base58(privateKey);
+        assertEquals(privateKey.secret, PrivateKey.fromBase58(wif).secret);
+    }
+}
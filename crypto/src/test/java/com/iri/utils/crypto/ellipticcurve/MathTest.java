@@ -0,0 +1,250 @@
+package com.iri.utils.crypto.ellipticcurve;
+import org.junit.Test;
+import java.math.BigInteger;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+public class MathTest {
+
+    private static final Curve curve = Curve.secp256k1;
+
+    private static Point multiplyG(BigInteger n) {
+        return Math.multiply(curve.G, n, curve.N, curve.A, curve.P);
+    }
+
+    @Test
+    public void testKnownMultiples() {
+        Point two = multiplyG(BigInteger.valueOf(2));
+        assertEquals(new BigInteger("c6047f9441ed7d6d3045406e95c07cd85c778e4b8cef3ca7abac09b95c709ee5", 16), two.x);
+        assertEquals(new BigInteger("1ae168fea63dc339a3c58419466ceaeef7f632653266d0e1236431a950cfe52a", 16), two.y);
+
+        Point three = multiplyG(BigInteger.valueOf(3));
+        assertEquals(new BigInteger("f9308a019258c31049344f85f89d5229b531c845836f99b08601f113bce036f9", 16), three.x);
+        assertEquals(new BigInteger("388f7b0f632de8140fe337e62a37f3566500a99934c2231b6cb9fd7584b8e672", 16), three.y);
+
+        Point minusOne = multiplyG(curve.N.subtract(BigInteger.ONE));
+        assertEquals(curve.G.x, minusOne.x);
+        assertEquals(curve.P.subtract(curve.G.y), minusOne.y);
+    }
+
+    @Test
+    public void testMultiplyIsLinear() {
+        Random random = new Random(11);
+        for (int i = 0; i < 20; i++) {
+            BigInteger a = new BigInteger(256, random).mod(curve.N);
+            BigInteger b = new BigInteger(256, random).mod(curve.N);
+            Point sum = Math.add(multiplyG(a), multiplyG(b), curve.A, curve.P);
+            Point expected = multiplyG(a.add(b));
+            assertEquals(expected.x, sum.x);
+            assertEquals(expected.y, sum.y);
+            assertTrue(curve.contains(sum));
+        }
+    }
+
+    @Test
+    public void testGeneratorTableMatchesDoubleAndAdd() {
+        // G scaled to Z = 2 is not recognised as the generator and takes the double-and-add path
+        BigInteger two = BigInteger.valueOf(2);
+        Point scaledG = new Point(curve.G.x.multiply(two.pow(2)).mod(curve.P), curve.G.y.multiply(two.pow(3)).mod(curve.P), two);
+        Random random = new Random(5);
+        for (int i = 0; i < 20; i++) {
+            BigInteger k = new BigInteger(256, random);
+            Point expected = Math.fromJacobian(Math.jacobianMultiply(scaledG, k, curve.N, curve.A, curve.P), curve.P);
+            Point actual = multiplyG(k);
+            assertEquals(expected.x, actual.x);
+            assertEquals(expected.y, actual.y);
+        }
+    }
+
+    @Test
+    public void testWindowsAgree() {
+        Point q = multiplyG(new BigInteger("31337"));
+        Random random = new Random(17);
+        for (int i = 0; i < 10; i++) {
+            BigInteger k = new BigInteger(256, random);
+            Point expected = Math.multiply(q, k, curve.N, curve.A, curve.P, 2);
+            for (int w = 3; w <= 8; w++) {
+                Point actual = Math.multiply(q, k, curve.N, curve.A, curve.P, w);
+                assertEquals(expected.x, actual.x);
+                assertEquals(expected.y, actual.y);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWindowOutOfRange() {
+        Math.multiply(curve.G, BigInteger.TEN, curve.N, curve.A, curve.P, 9);
+    }
+
+    @Test
+    public void testGenericCurveMatchesRepeatedAddition() {
+        // y^2 = x^3 + 2x + 3 (mod 97) is not secp256k1 and exercises the BigInteger formulas
+        BigInteger A = BigInteger.valueOf(2);
+        BigInteger P = BigInteger.valueOf(97);
+        Point g = new Point(BigInteger.valueOf(3), BigInteger.valueOf(6));
+        int order = 1;
+        Point acc = g;
+        while (acc.y.signum() != 0) {
+            acc = Math.add(acc, g, A, P);
+            order++;
+        }
+        BigInteger N = BigInteger.valueOf(order);
+        acc = g;
+        for (int k = 1; k < order; k++) {
+            Point actual = Math.multiply(g, BigInteger.valueOf(k), N, A, P, 3);
+            assertEquals(acc.x, actual.x);
+            assertEquals(acc.y, actual.y);
+            acc = Math.add(acc, g, A, P);
+        }
+    }
+
+    @Test
+    public void testMultiplyAndAdd() {
+        Point q = multiplyG(new BigInteger("987654321"));
+        Point r = multiplyG(new BigInteger("123456789"));
+        Random random = new Random(23);
+        for (int i = 0; i < 20; i++) {
+            BigInteger u1 = new BigInteger(256, random);
+            BigInteger u2 = new BigInteger(256, random);
+            Point expected = Math.add(multiplyG(u1), Math.multiply(q, u2, curve.N, curve.A, curve.P), curve.A, curve.P);
+
+            Point withG = Math.multiplyAndAdd(curve.G, u1, q, u2, curve.N, curve.A, curve.P);
+            assertEquals(expected.x, withG.x);
+            assertEquals(expected.y, withG.y);
+
+            Point swapped = Math.multiplyAndAdd(q, u2, curve.G, u1, curve.N, curve.A, curve.P);
+            assertEquals(expected.x, swapped.x);
+            assertEquals(expected.y, swapped.y);
+
+            Point general = Math.multiplyAndAdd(q, u1, r, u2, curve.N, curve.A, curve.P);
+            Point expectedGeneral = Math.add(Math.multiply(q, u1, curve.N, curve.A, curve.P), Math.multiply(r, u2, curve.N, curve.A, curve.P), curve.A, curve.P);
+            assertEquals(expectedGeneral.x, general.x);
+            assertEquals(expectedGeneral.y, general.y);
+        }
+        Point zero = Math.multiplyAndAdd(curve.G, BigInteger.ZERO, q, BigInteger.ONE, curve.N, curve.A, curve.P);
+        assertEquals(q.x, zero.x);
+    }
+
+    @Test
+    public void testJacobianRoundTrip() {
+        Point p = multiplyG(BigInteger.valueOf(12345));
+        Point doubled = Math.fromJacobian(Math.jacobianDouble(Math.toJacobian(p), curve.A, curve.P), curve.P);
+        Point expected = multiplyG(BigInteger.valueOf(24690));
+        assertEquals(expected.x, doubled.x);
+        assertEquals(expected.y, doubled.y);
+
+        Point infinity = Math.add(p, multiplyG(curve.N.subtract(BigInteger.valueOf(12345))), curve.A, curve.P);
+        assertEquals(BigInteger.ZERO, infinity.x);
+        assertEquals(BigInteger.ZERO, infinity.y);
+    }
+
+    @Test
+    public void testGlvSplit() {
+        Random random = new Random(5);
+        for (int i = 0; i < 50; i++) {
+            BigInteger k = new BigInteger(256, random).mod(curve.N);
+            BigInteger[] split = Glv.split(k);
+            assertEquals(k, split[0].add(split[1].multiply(Glv.LAMBDA)).mod(curve.N));
+            assertTrue(split[0].abs().bitLength() <= 129);
+            assertTrue(split[1].abs().bitLength() <= 129);
+        }
+        BigInteger[] last = Glv.split(curve.N.subtract(BigInteger.ONE));
+        assertEquals(curve.N.subtract(BigInteger.ONE), last[0].add(last[1].multiply(Glv.LAMBDA)).mod(curve.N));
+    }
+
+    @Test
+    public void testLambdaMultipleIsBetaMap() {
+        Point p = multiplyG(Glv.LAMBDA);
+        assertEquals(curve.G.x.multiply(Glv.BETA).mod(curve.P), p.x);
+        assertEquals(curve.G.y, p.y);
+    }
+
+    @Test
+    public void testMultiplyAndAddHasX() {
+        Random random = new Random(6);
+        Point q = multiplyG(new BigInteger(256, random));
+        BigInteger u1 = new BigInteger(256, random).mod(curve.N);
+        BigInteger u2 = new BigInteger(256, random).mod(curve.N);
+        Point sum = Math.multiplyAndAdd(curve.G, u1, q, u2, curve.N, curve.A, curve.P);
+        assertTrue(Math.multiplyAndAddHasX(curve.G, u1, q, u2, sum.x.mod(curve.N), curve.N, curve.A, curve.P));
+        assertFalse(Math.multiplyAndAddHasX(curve.G, u1, q, u2, sum.x.add(BigInteger.ONE).mod(curve.N), curve.N, curve.A, curve.P));
+        assertFalse(Math.multiplyAndAddHasX(curve.G, BigInteger.ONE, curve.G, curve.N.subtract(BigInteger.ONE), BigInteger.ONE, curve.N, curve.A, curve.P));
+    }
+
+    @Test
+    public void testMultiplyAndAddHasXOverflow() {
+        // (87, 27) has order 50 on y^2 = x^3 + 2x + 3 (mod 97), so x coordinates reduce by several N
+        BigInteger A = BigInteger.valueOf(2);
+        BigInteger P = BigInteger.valueOf(97);
+        Point g = new Point(BigInteger.valueOf(87), BigInteger.valueOf(27));
+        int order = 1;
+        Point acc = g;
+        while (acc.y.signum() != 0) {
+            acc = Math.add(acc, g, A, P);
+            order++;
+        }
+        BigInteger N = BigInteger.valueOf(order);
+        boolean overflowSeen = false;
+        for (int k = 1; k < order; k++) {
+            Point point = Math.multiply(g, BigInteger.valueOf(k), N, A, P);
+            BigInteger r = point.x.mod(N);
+            if (r.signum() == 0) {
+                continue;
+            }
+            overflowSeen |= point.x.compareTo(N) >= 0;
+            assertTrue(Math.multiplyAndAddHasX(g, BigInteger.valueOf(k - 1), g, BigInteger.ONE, r, N, A, P));
+        }
+        assertTrue(overflowSeen);
+    }
+
+    @Test
+    public void testBatchInverse() {
+        Random random = new Random(7);
+        BigInteger[] values = new BigInteger[20];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = new BigInteger(256, random).mod(curve.N.subtract(BigInteger.ONE)).add(BigInteger.ONE);
+        }
+        BigInteger[] inverses = Math.batchInverse(values, curve.N);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(Math.inv(values[i], curve.N), inverses[i]);
+        }
+        assertEquals(0, Math.batchInverse(new BigInteger[0], curve.N).length);
+    }
+
+    @Test
+    public void testBatchNormalize() {
+        Random random = new Random(14);
+        Point[] jacobian = new Point[6];
+        Point[] expected = new Point[6];
+        for (int i = 0; i < jacobian.length; i++) {
+            BigInteger k = new BigInteger(256, random);
+            expected[i] = multiplyG(k);
+            jacobian[i] = Math.jacobianDouble(Math.jacobianMultiply(Math.toJacobian(curve.G), k, curve.N, curve.A, curve.P), curve.A, curve.P);
+            expected[i] = Math.add(expected[i], expected[i], curve.A, curve.P);
+        }
+        jacobian[2] = new Point(BigInteger.ZERO, BigInteger.ZERO, BigInteger.ONE);
+        expected[2] = new Point(BigInteger.ZERO, BigInteger.ZERO, BigInteger.ZERO);
+        Point[] affine = Math.batchNormalize(jacobian, curve.P);
+        for (int i = 0; i < affine.length; i++) {
+            assertEquals(expected[i].x, affine[i].x);
+            assertEquals(expected[i].y, affine[i].y);
+        }
+
+        // the BigInteger path on y^2 = x^3 + 2x + 3 (mod 97)
+        BigInteger A = BigInteger.valueOf(2);
+        BigInteger P = BigInteger.valueOf(97);
+        Point g = Math.toJacobian(new Point(BigInteger.valueOf(87), BigInteger.valueOf(27)));
+        BigInteger N = BigInteger.valueOf(50);
+        Point[] small = new Point[]{Math.jacobianDouble(g, A, P), Math.jacobianMultiply(g, BigInteger.valueOf(7), N, A, P), Math.jacobianDouble(Math.jacobianDouble(g, A, P), A, P)};
+        Point[] smallAffine = Math.batchNormalize(small, P);
+        for (int i = 0; i < small.length; i++) {
+            Point one = Math.fromJacobian(small[i], P);
+            assertEquals(one.x, smallAffine[i].x);
+            assertEquals(one.y, smallAffine[i].y);
+        }
+        assertEquals(0, Math.batchNormalize(new Point[0], curve.P).length);
+    }
+}
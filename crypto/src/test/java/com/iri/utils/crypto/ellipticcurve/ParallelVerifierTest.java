@@ -0,0 +1,64 @@
+package com.iri.utils.crypto.ellipticcurve;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.Assert.assertArrayEquals;
+
+
+public class ParallelVerifierTest {
+
+    private static final int SIZE = 40;
+
+    private static boolean[] expected;
+
+    private static List<SignedMessage> batch() {
+        List<SignedMessage> items = new ArrayList<>();
+        expected = new boolean[SIZE];
+        PrivateKey privateKey = new PrivateKey();
+        PublicKey publicKey = privateKey.publicKey();
+        for (int i = 0; i < SIZE; i++) {
+            String message = "message " + i;
+            Signature signature = Ecdsa.sign(message, privateKey);
+            expected[i] = i % 3 != 0;
+            items.add(new SignedMessage(expected[i] ? message : message + "!", signature, publicKey));
+        }
+        return items;
+    }
+
+    @Test
+    public void testForkJoinPool() {
+        List<SignedMessage> items = batch();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertArrayEquals(expected, new ParallelVerifier(pool, 3).verify(items));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testExecutor() {
+        List<SignedMessage> items = batch();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            assertArrayEquals(expected, new ParallelVerifier(executor, 7).verify(items));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testDefaults() {
+        List<SignedMessage> items = batch();
+        assertArrayEquals(expected, new ParallelVerifier().verify(items));
+        assertArrayEquals(new boolean[0], new ParallelVerifier().verify());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testChunkSizeMustBePositive() {
+        new ParallelVerifier(ForkJoinPool.commonPool(), 0);
+    }
+}
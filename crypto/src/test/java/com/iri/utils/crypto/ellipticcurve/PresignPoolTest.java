@@ -0,0 +1,63 @@
+package com.iri.utils.crypto.ellipticcurve;
+import org.junit.Test;
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class PresignPoolTest {
+
+    @Test
+    public void testSignWithPool() {
+        PrivateKey privateKey = new PrivateKey();
+        PublicKey publicKey = privateKey.publicKey();
+        // an executor that never runs anything keeps the pool under the test's control
+        PresignPool pool = new PresignPool(Curve.secp256k1, 8, command -> { });
+        pool.fill();
+        assertEquals(8, pool.available());
+
+        Set<BigInteger> rs = new HashSet<>();
+        for (int i = 0; i < 12; i++) {
+            String message = "message " + i;
+            RecoverableSignature signature = Ecdsa.sign(message, privateKey, pool);
+            assertTrue(Ecdsa.verify(message, signature, publicKey));
+            assertTrue(rs.add(signature.r));
+        }
+        assertEquals(0, pool.available());
+    }
+
+    @Test
+    public void testBackgroundRefill() throws InterruptedException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            PresignPool pool = new PresignPool(Curve.secp256k1, 4, executor);
+            for (int i = 0; i < 100 && pool.available() < 4; i++) {
+                Thread.sleep(50);
+            }
+            assertEquals(4, pool.available());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testPresignedNonces() {
+        Curve curve = Curve.secp256k1;
+        PresignPool.Presignature[] nonces = PresignPool.presign(curve, 3);
+        for (PresignPool.Presignature nonce : nonces) {
+            BigInteger k = Math.inv(nonce.kInverse, curve.N);
+            Point point = Math.multiply(curve.G, k, curve.N, curve.A, curve.P);
+            assertEquals(point.x.mod(curve.N), nonce.r);
+            assertEquals(point.y.testBit(0) ? 1 : 0, nonce.recoveryId & 1);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDepthMustBePositive() {
+        new PresignPool(Curve.secp256k1, 0, command -> { });
+    }
+}
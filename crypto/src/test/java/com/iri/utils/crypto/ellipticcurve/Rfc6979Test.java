@@ -0,0 +1,39 @@
+package com.iri.utils.crypto.ellipticcurve;
+import com.iri.utils.crypto.ellipticcurve.utils.Hashes;
+import org.junit.Test;
+import java.math.BigInteger;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class Rfc6979Test {
+
+    private static final Curve curve = Curve.secp256k1;
+
+    @Test
+    public void testKnownNonces() {
+        // widely used secp256k1 / SHA-256 vectors, hashing the message once
+        assertEquals(new BigInteger("8F8A276C19F4149656B280621E358CCE24F5F52542772691EE69063B74F15D15", 16),
+                Rfc6979.nonce(BigInteger.ONE, Hashes.sha256("Satoshi Nakamoto".getBytes()), curve.N));
+        assertEquals(new BigInteger("38AA22D72376B4DBC472E06C3BA403EE0A394DA63FC58D88686C611ABA98D6B3", 16),
+                Rfc6979.nonce(BigInteger.ONE, Hashes.sha256("All those moments will be lost in time, like tears in rain. Time to die...".getBytes()), curve.N));
+        assertEquals(new BigInteger("33A19B60E25FB6F4435AF53A3D42D493644827367E6453928554F43E49AA6F90", 16),
+                Rfc6979.nonce(curve.N.subtract(BigInteger.ONE), Hashes.sha256("Satoshi Nakamoto".getBytes()), curve.N));
+    }
+
+    @Test
+    public void testDeterministicSignature() {
+        PrivateKey privateKey = new PrivateKey();
+        String message = "This is the right message";
+        RecoverableSignature first = Ecdsa.sign(message, privateKey, Ecdsa.Nonce.RFC6979);
+        RecoverableSignature second = Ecdsa.sign(message, privateKey, Ecdsa.Nonce.RFC6979);
+        assertEquals(first.r, second.r);
+        assertEquals(first.s, second.s);
+        assertEquals(first.recoveryId, second.recoveryId);
+        assertTrue(Ecdsa.verify(message, first, privateKey.publicKey()));
+
+        RecoverableSignature other = Ecdsa.sign(message + "!", privateKey, Ecdsa.Nonce.RFC6979);
+        assertNotEquals(first.r, other.r);
+    }
+}
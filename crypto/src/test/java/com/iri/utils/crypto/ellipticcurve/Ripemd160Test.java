@@ -8,9 +8,18 @@
 
 package com.iri.utils.crypto.ellipticcurve;
 
+import com.iri.utils.crypto.ellipticcurve.utils.BinaryAscii;
 import com.iri.utils.crypto.ellipticcurve.utils.Ripemd160;
+import com.iri.utils.crypto.ellipticcurve.utils.Ripemd160Provider;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
 import org.junit.Test;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
 
 /**
  * Tests the RIPEMD-160 hash function class.
@@ -163,4 +172,58 @@ public final class Ripemd160Test {
 //			Utils.hexToBytes(testCase[0]) Ripemd160.getHash(Utils.asciiToBytes(testCase[1])));
 	}
 	
-}
+	
+	@Test public void testGetHash() {
+		assertEquals("8eb208f7e05d987a9b044a8e98c6b087f15a0bfc", BinaryAscii.hexFromBinary(Ripemd160.getHash(ascii("abc"))));
+		assertEquals("9b752e45573d4b39f4dbd3323cab82bf63326bfb", BinaryAscii.hexFromBinary(Ripemd160.getHash(ascii(
+			"12345678901234567890123456789012345678901234567890123456789012345678901234567890"))));
+	}
+	
+	
+	@Test public void testIncremental() {
+		byte[] msg = new byte[300];
+		for (int i = 0; i < msg.length; i++)
+			msg[i] = (byte)(i * 7 + 3);
+		Ripemd160 md = new Ripemd160();
+		byte[] actual = new byte[Ripemd160.HASH_LEN + 2];
+		// Every split point, including ones inside and across block boundaries, and reuse after digest
+		for (int len = 0; len <= msg.length; len += 13) {
+			byte[] expected = Ripemd160.getHash(Arrays.copyOf(msg, len));
+			for (int split = 0; split <= len; split += 5) {
+				md.update(msg, 0, split);
+				md.update(ByteBuffer.wrap(msg, split, len - split));
+				md.digest(actual, 1);
+				assertArrayEquals(expected, Arrays.copyOfRange(actual, 1, 1 + Ripemd160.HASH_LEN));
+			}
+		}
+		md.update((byte)'a');
+		md.reset();
+		md.update(directAbc());
+		md.digest(actual, 0);
+		assertArrayEquals(Ripemd160.getHash(ascii("abc")), Arrays.copyOf(actual, Ripemd160.HASH_LEN));
+	}
+	
+	
+	@Test public void testProvider() throws Exception {
+		MessageDigest md = MessageDigest.getInstance("RIPEMD-160", new Ripemd160Provider());
+		assertEquals(Ripemd160.HASH_LEN, md.getDigestLength());
+		md.update(ascii("message "));
+		md.update(ascii("digest"));
+		assertEquals("5d0689ef49d2fae572b881b123a85ffa21595f36", BinaryAscii.hexFromBinary(md.digest()));
+		assertEquals("9c1185a5c5e9fc54612808977ee8f548b2258d31", BinaryAscii.hexFromBinary(Ripemd160Provider.newDigest().digest()));
+	}
+	
+	
+	private static ByteBuffer directAbc() {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(3);
+		buffer.put(ascii("abc"));
+		buffer.flip();
+		return buffer;
+	}
+	
+	
+	private static byte[] ascii(String s) {
+		return s.getBytes(StandardCharsets.US_ASCII);
+	}
+	
+}
\ No newline at end of file
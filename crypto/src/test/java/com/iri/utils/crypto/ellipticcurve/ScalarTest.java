@@ -0,0 +1,97 @@
+package com.iri.utils.crypto.ellipticcurve;
+import org.junit.Test;
+import java.math.BigInteger;
+import java.util.Random;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+public class ScalarTest {
+
+    private static final BigInteger N = Scalar.N;
+
+    private static final BigInteger[] EDGES = {
+        BigInteger.ZERO,
+        BigInteger.ONE,
+        N.subtract(BigInteger.ONE),
+        N.subtract(BigInteger.valueOf(2)),
+        BigInteger.ONE.shiftLeft(255),
+        BigInteger.ONE.shiftLeft(128).subtract(BigInteger.ONE),
+        N.shiftRight(1)
+    };
+
+    @Test
+    public void testBytes() {
+        byte[] out = new byte[33];
+        for (BigInteger value : EDGES) {
+            Scalar.fromBigInteger(value).getBytes(out, 1);
+            assertEquals(value, new BigInteger(1, java.util.Arrays.copyOfRange(out, 1, 33)));
+            assertEquals(value, new Scalar().setBytes(out, 1).toBigInteger());
+        }
+        // 32-byte values at or above N are reduced
+        byte[] max = new byte[32];
+        java.util.Arrays.fill(max, (byte) 0xFF);
+        assertEquals(BigInteger.ONE.shiftLeft(256).subtract(BigInteger.ONE).mod(N), new Scalar().setBytes(max, 0).toBigInteger());
+    }
+
+    @Test
+    public void testArithmeticMatchesBigInteger() {
+        Random random = new Random(15);
+        BigInteger[] values = new BigInteger[EDGES.length + 40];
+        System.arraycopy(EDGES, 0, values, 0, EDGES.length);
+        for (int i = EDGES.length; i < values.length; i++) {
+            values[i] = new BigInteger(256, random).mod(N);
+        }
+        for (BigInteger a : values) {
+            for (BigInteger b : values) {
+                Scalar x = Scalar.fromBigInteger(a);
+                Scalar y = Scalar.fromBigInteger(b);
+                assertEquals(a.add(b).mod(N), new Scalar().add(x, y).toBigInteger());
+                assertEquals(a.multiply(b).mod(N), new Scalar().mul(x, y).toBigInteger());
+            }
+        }
+    }
+
+    @Test
+    public void testReduction() {
+        assertTrue(Scalar.fromBigInteger(N).isZero());
+        assertEquals(BigInteger.ONE, Scalar.fromBigInteger(N.add(BigInteger.ONE)).toBigInteger());
+        assertEquals(N.subtract(BigInteger.ONE), Scalar.fromBigInteger(BigInteger.ONE.negate()).toBigInteger());
+    }
+
+    @Test
+    public void testInvert() {
+        Random random = new Random(16);
+        for (int i = 0; i < 30; i++) {
+            BigInteger a = new BigInteger(256, random).mod(N);
+            Scalar s = Scalar.fromBigInteger(a);
+            assertEquals(a.modInverse(N), s.invert(s).toBigInteger());
+        }
+        assertTrue(new Scalar().invert(Scalar.fromBigInteger(BigInteger.ZERO)).isZero());
+    }
+
+    @Test
+    public void testBatchInvert() {
+        Random random = new Random(17);
+        BigInteger[] values = new BigInteger[9];
+        BigInteger[] expected = new BigInteger[values.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = new BigInteger(256, random).mod(N.subtract(BigInteger.ONE)).add(BigInteger.ONE);
+            expected[i] = values[i].modInverse(N);
+        }
+        assertArrayEquals(expected, Scalar.batchInvert(values));
+        assertEquals(0, Scalar.batchInvert(new BigInteger[0]).length);
+    }
+
+    @Test
+    public void testInvConstantTime() {
+        Random random = new Random(18);
+        BigInteger a = new BigInteger(256, random);
+        assertEquals(a.mod(N).modInverse(N), Math.invConstantTime(a, N));
+        assertEquals(a.mod(FieldElement.P).modInverse(FieldElement.P), Math.invConstantTime(a, FieldElement.P));
+        assertEquals(BigInteger.valueOf(65), Math.invConstantTime(BigInteger.valueOf(3), BigInteger.valueOf(97)));
+        assertEquals(a.mod(N).modInverse(N), Math.inv(a, N));
+        assertEquals(BigInteger.ZERO, Math.inv(N, N));
+    }
+}
@@ -0,0 +1,65 @@
+package com.iri.utils.crypto.ellipticcurve;
+import com.iri.utils.crypto.ellipticcurve.utils.BinaryAscii;
+import com.iri.utils.crypto.ellipticcurve.utils.Hashes;
+import com.iri.utils.crypto.ellipticcurve.utils.Sha256;
+import org.junit.Test;
+import java.util.Arrays;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+
+public class Sha256Test {
+
+    @Test
+    public void testKnownDigests() {
+        assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855", hex(""));
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", hex("abc"));
+        assertEquals("248d6a61d20638b8e5c026930c3e6039a33ce45964ff2167f6ecedd419db06c1",
+                hex("abcdbcdecdefdefgefghfghighijhijkijkljklmklmnlmnomnopnopq"));
+    }
+
+    @Test
+    public void testMatchesJdkForEveryLength() {
+        byte[] data = new byte[200];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 31 + 7);
+        }
+        Sha256 sha256 = new Sha256();
+        for (int len = 0; len <= data.length; len++) {
+            // split in two updates so buffered and direct blocks are both exercised
+            sha256.update(data, 0, len / 3);
+            sha256.update(data, len / 3, len - len / 3);
+            assertArrayEquals(Hashes.sha256(Arrays.copyOf(data, len)), sha256.digest());
+        }
+    }
+
+    @Test
+    public void testMidstate() {
+        byte[] prefix = "\u0018Bitcoin Signed Message:\n".getBytes();
+        byte[] message = "\u0005hello".getBytes();
+        Sha256 midstate = new Sha256();
+        midstate.update(prefix, 0, prefix.length);
+
+        byte[] whole = new byte[prefix.length + message.length];
+        System.arraycopy(prefix, 0, whole, 0, prefix.length);
+        System.arraycopy(message, 0, whole, prefix.length, message.length);
+
+        Sha256 resumed = new Sha256(midstate);
+        resumed.update(message, 0, message.length);
+        byte[] out = new byte[Sha256.HASH_LEN];
+        resumed.doubleDigest(out, 0);
+        assertArrayEquals(Hashes.doubleSha256(whole), out);
+
+        // the midstate itself is untouched and can be restored again into a used instance
+        resumed.update((byte) 1);
+        resumed.set(midstate).update(message, 0, message.length);
+        assertArrayEquals(Hashes.sha256(whole), resumed.digest());
+    }
+
+    private static String hex(String message) {
+        Sha256 sha256 = new Sha256();
+        byte[] bytes = message.getBytes();
+        sha256.update(bytes, 0, bytes.length);
+        return BinaryAscii.hexFromBinary(sha256.digest());
+    }
+}
@@ -0,0 +1,39 @@
+package com.iri.utils.crypto.ellipticcurve;
+import org.junit.Test;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+
+public class VanitySearchTest {
+
+    @Test
+    public void testFindsPrefix() throws Exception {
+        AtomicInteger reports = new AtomicInteger();
+        VanitySearch search = new VanitySearch("1A", 2, 64, (attempts, rate) -> reports.incrementAndGet(), 1);
+        EcdsaUtils.SecureInfo info = search.search();
+        assertTrue(info.getAddress().startsWith("1A"));
+        assertEquals(info.getAddress(), EcdsaUtils.generateAddress(PrivateKey.fromBase58(info.getPrivateKey())));
+        assertTrue(search.getAttempts() > 0);
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        // eight Base58 characters after the 1 are far out of reach
+        VanitySearch search = new VanitySearch("1zzzzzzzz", 1, 16, null, 1);
+        new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException ignored) {
+            }
+            search.cancel();
+        }).start();
+        assertNull(search.search());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPrefix() {
+        new VanitySearch("10");
+    }
+}